@@ -7,6 +7,7 @@ CREATE TABLE IF NOT EXISTS users (
     email VARCHAR(255) NOT NULL UNIQUE,
     display_name VARCHAR(255),
     photo_url TEXT,
+    saved_comics_count INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -39,24 +40,28 @@ CREATE TABLE IF NOT EXISTS comics (
     id BIGSERIAL PRIMARY KEY,
     repo_name VARCHAR(500) NOT NULL,
     repo_url TEXT NOT NULL,
-    stars INTEGER DEFAULT 0,
+    stars INTEGER NOT NULL DEFAULT 0,
     language VARCHAR(100),
     panels JSONB NOT NULL,
     key_insights JSONB,
     is_new BOOLEAN DEFAULT true,
-    likes INTEGER DEFAULT 0,
-    shares INTEGER DEFAULT 0,
+    likes INTEGER NOT NULL DEFAULT 0,
+    shares INTEGER NOT NULL DEFAULT 0,
     comments INTEGER DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    hot_score DOUBLE PRECISION NOT NULL DEFAULT ((EXTRACT(EPOCH FROM LOCALTIMESTAMP) - 1704067200) / 86400.0)
 );
 
 CREATE INDEX IF NOT EXISTS idx_comics_repo_name ON comics(repo_name);
 CREATE INDEX IF NOT EXISTS idx_comics_language ON comics(language);
-CREATE INDEX IF NOT EXISTS idx_comics_created_at ON comics(created_at DESC);
-CREATE INDEX IF NOT EXISTS idx_comics_stars ON comics(stars DESC);
-CREATE INDEX IF NOT EXISTS idx_comics_likes ON comics(likes DESC);
-CREATE INDEX IF NOT EXISTS idx_comics_is_new ON comics(is_new) WHERE is_new = true;
+-- 커서(keyset) 페이지네이션용: 정렬 키 + id
+CREATE INDEX IF NOT EXISTS idx_comics_created_at_id ON comics(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comics_stars_id ON comics(stars DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comics_likes_id ON comics(likes DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comics_new_created_at_id ON comics(created_at DESC, id DESC) WHERE is_new = true;
+CREATE INDEX IF NOT EXISTS idx_comics_language_stars_id ON comics(language, stars DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comics_hot_score_id ON comics(hot_score DESC, id DESC);
 
 COMMENT ON TABLE comics IS '코믹 컨텐츠 메타데이터';
 
@@ -78,6 +83,25 @@ CREATE INDEX IF NOT EXISTS idx_saved_comics_user_saved_at ON saved_comics(user_u
 
 COMMENT ON TABLE saved_comics IS '사용자가 저장한 코믹 목록';
 
+-- users.saved_comics_count 유지 트리거
+CREATE OR REPLACE FUNCTION update_users_saved_comics_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE users SET saved_comics_count = saved_comics_count + 1 WHERE uid = NEW.user_uid;
+    ELSE
+        UPDATE users SET saved_comics_count = saved_comics_count - 1 WHERE uid = OLD.user_uid;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS update_saved_comics_count ON saved_comics;
+CREATE TRIGGER update_saved_comics_count
+    AFTER INSERT OR DELETE ON saved_comics
+    FOR EACH ROW
+    EXECUTE FUNCTION update_users_saved_comics_count();
+
 -- 5. 뉴스레터 구독 테이블
 -- ENUM 타입 생성 (IF NOT EXISTS 직접 지원 안됨, 따라서 DO 블록 사용)
 DO $$ 
@@ -106,6 +130,34 @@ CREATE INDEX IF NOT EXISTS idx_newsletter_active_subscribers ON newsletter_subsc
 
 COMMENT ON TABLE newsletter_subscriptions IS '뉴스레터 구독 정보';
 
+-- 6. 코믹 좋아요 테이블
+CREATE TABLE IF NOT EXISTS comic_likes (
+    id BIGSERIAL PRIMARY KEY,
+    user_uid VARCHAR(255) NOT NULL,
+    comic_id BIGINT NOT NULL,
+    liked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_comic_likes_user FOREIGN KEY (user_uid) REFERENCES users(uid) ON DELETE CASCADE,
+    CONSTRAINT fk_comic_likes_comic FOREIGN KEY (comic_id) REFERENCES comics(id) ON DELETE CASCADE,
+    CONSTRAINT uk_comic_likes_user_comic UNIQUE (user_uid, comic_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_comic_likes_comic_id ON comic_likes(comic_id);
+
+COMMENT ON TABLE comic_likes IS '사용자별 코믹 좋아요';
+
+-- 7. 코믹 전문 검색 문서 테이블
+CREATE TABLE IF NOT EXISTS comic_search_documents (
+    comic_id BIGINT PRIMARY KEY,
+    document TSVECTOR NOT NULL,
+    indexed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    source_hash TEXT,
+    CONSTRAINT fk_comic_search_documents_comic FOREIGN KEY (comic_id) REFERENCES comics(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_comic_search_documents_document ON comic_search_documents USING GIN(document);
+
+COMMENT ON TABLE comic_search_documents IS '코믹 전문 검색용 tsvector';
+
 -- 초기화 완료 로그
 DO $$ 
 BEGIN
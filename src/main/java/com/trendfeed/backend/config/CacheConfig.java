@@ -0,0 +1,73 @@
+package com.trendfeed.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+ * 코믹 조회 / 사용자 프로필용 로컬 Caffeine 캐시
+ *  - 미리 등록 + recordStats() → Actuator 가 캐시별 cache.gets / puts / evictions 지표 노출
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    // 커서 없는 피드 페이지 JSON 바이트 (키: ComicResponseCache.FeedKey)
+    public static final String COMIC_PAGE_BYTES = "comicPageBytes";
+    
+    // 코믹 상세 JSON 바이트 (키: comic id)
+    public static final String COMIC_DETAIL = "comicDetail";
+    
+    // 사용자별 좋아요 코믹 id 정렬 배열 long[] (키: uid)
+    public static final String USER_LIKES = "userLikes";
+    
+    // 사용자 프로필 + 선호/통계 (키: uid)
+    public static final String USER_PROFILES = "userProfiles";
+    
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${comics.cache.pages.max-size:500}") long pagesMaxSize,
+            @Value("${comics.cache.pages.ttl-seconds:60}") long pagesTtlSeconds,
+            @Value("${comics.cache.detail.max-size:1000}") long detailMaxSize,
+            @Value("${comics.cache.detail.ttl-seconds:600}") long detailTtlSeconds,
+            @Value("${comics.cache.user-likes.max-size:10000}") long userLikesMaxSize,
+            @Value("${comics.cache.user-likes.idle-minutes:30}") long userLikesIdleMinutes,
+            @Value("${users.cache.profiles.max-size:10000}") long profilesMaxSize,
+            @Value("${users.cache.profiles.ttl-minutes:10}") long profilesTtlMinutes
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        
+        cacheManager.registerCustomCache(COMIC_PAGE_BYTES, Caffeine.newBuilder()
+                .maximumSize(pagesMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(pagesTtlSeconds))
+                .recordStats()
+                .build());
+        
+        cacheManager.registerCustomCache(COMIC_DETAIL, Caffeine.newBuilder()
+                .maximumSize(detailMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(detailTtlSeconds))
+                .recordStats()
+                .build());
+        
+        cacheManager.registerCustomCache(USER_LIKES, Caffeine.newBuilder()
+                .maximumSize(userLikesMaxSize)
+                .expireAfterAccess(Duration.ofMinutes(userLikesIdleMinutes))
+                .recordStats()
+                .build());
+        
+        cacheManager.registerCustomCache(USER_PROFILES, Caffeine.newBuilder()
+                .maximumSize(profilesMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(profilesTtlMinutes))
+                .recordStats()
+                .build());
+        
+        return cacheManager;
+    }
+}
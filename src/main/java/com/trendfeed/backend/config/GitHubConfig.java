@@ -1,5 +1,6 @@
 package com.trendfeed.backend.config;
 
+import com.trendfeed.backend.service.GitHubRateLimiter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,7 +17,8 @@ public class GitHubConfig {
     @Bean
     public WebClient githubWebClient(
             @Value("${github.base.url}") String baseUrl,
-            @Value("${github.token}") String token
+            @Value("${github.token}") String token,
+            GitHubRateLimiter rateLimiter
     ) {
         HttpClient httpClient = HttpClient.create()
                 .responseTimeout(Duration.ofSeconds(30));
@@ -27,9 +29,12 @@ public class GitHubConfig {
                 .defaultHeader("Authorization", "Bearer " + token)
                 .defaultHeader("Accept", "application/vnd.github+json")
                 .defaultHeader("User-Agent", "trendfeed-crawler")
-                // 간단 로깅 필터
+                // 레이트리밋 헤더 기록 필터
                 .filter(ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-                    // 필요 시 상태 코드 로깅 등 추가
+                    rateLimiter.record(
+                            clientResponse.statusCode().value(),
+                            clientResponse.headers().asHttpHeaders()
+                    );
                     return reactor.core.publisher.Mono.just(clientResponse);
                 }))
                 .build();
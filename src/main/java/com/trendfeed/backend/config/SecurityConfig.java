@@ -21,6 +21,35 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
     
+    /**
+     * Routes open to anonymous callers. A Bearer token sent here is still
+     * verified so public reads can personalize for signed-in users.
+     */
+    public static final String[] ANONYMOUS_ROUTES = {
+            "/api/auth/**",         // AuthService verifies the token itself
+            "/api/newsletter/**",
+            "/api/comics/**",
+            "/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html",
+            "/actuator/health", "/actuator/health/**", "/actuator/info"
+    };
+    
+    /**
+     * Authenticated routes nested under ANONYMOUS_ROUTES (still verified).
+     */
+    public static final String[] AUTHENTICATED_OVERRIDES = {
+            "/api/comics/*/like"    // Per-user likes
+    };
+    
+    /**
+     * Routes that never read the principal: FirebaseAuthenticationFilter
+     * skips token verification there even when a Bearer header is present.
+     */
+    public static final String[] TOKEN_VERIFICATION_SKIPPED_ROUTES = {
+            "/api/auth/**",         // AuthService verifies the token itself
+            "/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html",
+            "/actuator/health", "/actuator/health/**", "/actuator/info"
+    };
+    
     private final FirebaseAuthenticationFilter firebaseAuthenticationFilter;
     
     @Bean
@@ -30,16 +59,12 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                // Public endpoints
-                .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/newsletter/**").permitAll()
-                .requestMatchers("/api/comics/**").permitAll()  // Comics public API
-                
-                // Swagger/OpenAPI
-                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                // Public endpoints (auth, newsletter, comics, Swagger/OpenAPI, Actuator health/info)
+                .requestMatchers(AUTHENTICATED_OVERRIDES).authenticated()
+                .requestMatchers(ANONYMOUS_ROUTES).permitAll()
                 
-                // Actuator
-                .requestMatchers("/actuator/**").permitAll()
+                // Actuator metrics etc. (health/info are public above)
+                .requestMatchers("/actuator/**").authenticated()
                 
                 // User endpoints (authenticated)
                 .requestMatchers("/api/user/**").authenticated()
@@ -2,16 +2,27 @@ package com.trendfeed.backend.controller;
 
 import com.trendfeed.backend.dto.response.ApiResponse;
 import com.trendfeed.backend.dto.response.ComicResponse;
-import com.trendfeed.backend.dto.response.PaginatedResponse;
+import com.trendfeed.backend.dto.response.ComicSearchResponse;
+import com.trendfeed.backend.security.FirebaseUserDetails;
+import com.trendfeed.backend.service.ComicLikeService;
+import com.trendfeed.backend.service.ComicResponseCache;
+import com.trendfeed.backend.service.ComicResponseCache.FeedKey;
+import com.trendfeed.backend.service.ComicResponseCache.SerializedResponse;
 import com.trendfeed.backend.service.ComicService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,77 +34,162 @@ import java.util.Map;
 public class ComicController {
     
     private final ComicService comicService;
+    private final ComicResponseCache comicResponseCache;
+    private final ComicLikeService comicLikeService;
+    
+    // Browser (max-age) / CDN (s-maxage) cache lifetimes
+    @Value("${comics.http.feed.max-age-seconds:30}")
+    private long feedMaxAgeSeconds;
+    
+    @Value("${comics.http.feed.s-maxage-seconds:60}")
+    private long feedSharedMaxAgeSeconds;
+    
+    @Value("${comics.http.detail.max-age-seconds:60}")
+    private long detailMaxAgeSeconds;
+    
+    @Value("${comics.http.detail.s-maxage-seconds:300}")
+    private long detailSharedMaxAgeSeconds;
     
     @GetMapping
-    @Operation(summary = "Get all comics", description = "Get paginated list of all comics")
-    public ResponseEntity<ApiResponse<PaginatedResponse<ComicResponse>>> getAllComics(
+    @Operation(summary = "Get all comics", description = "Get paginated list of all comics (page or cursor based)")
+    public ResponseEntity<byte[]> getAllComics(
             @Parameter(description = "Page number (1-indexed)") 
             @RequestParam(defaultValue = "1") int page,
             
             @Parameter(description = "Items per page") 
             @RequestParam(defaultValue = "20") int limit,
             
-            @Parameter(description = "Sort by: latest, stars, likes") 
-            @RequestParam(defaultValue = "latest") String sortBy
+            @Parameter(description = "Sort by: latest, stars, likes, hot (time-decayed engagement)") 
+            @RequestParam(defaultValue = "latest") String sortBy,            
+            @Parameter(description = "Opaque cursor from pagination.nextCursor (empty for the first page)") 
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Include totalItems/totalPages (default: true for page requests, false for cursor requests)") 
+            @RequestParam(required = false) Boolean includeTotal
+    ) {
+        log.debug("Getting all comics: page={}, limit={}, sortBy={}, cursor={}", page, limit, sortBy, cursor);
+        
+        SerializedResponse body = comicResponseCache.getFeedPage(
+                FeedKey.all(sortBy, page, limit, includeTotal), cursor,
+                () -> comicService.getAllComics(page, limit, sortBy, cursor, includeTotal));
+        return json(body, feedCacheControl());
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search comics", description = "Full-text search over repo name, key insights and repository description/README with language / star facets")
+    public ResponseEntity<ApiResponse<ComicSearchResponse>> searchComics(
+            @Parameter(description = "Search query (websearch syntax: \"quoted phrase\", or, -exclude)") 
+            @RequestParam String q,
+            
+            @Parameter(description = "Programming language filter") 
+            @RequestParam(required = false) String language,
+            
+            @Parameter(description = "Star bucket filter: lt100, 100-1k, 1k-10k, 10k+") 
+            @RequestParam(required = false) String stars,
+            
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int limit
     ) {
-        log.debug("Getting all comics: page={}, limit={}, sortBy={}", page, limit, sortBy);
+        log.debug("Searching comics: q={}, language={}, stars={}, page={}, limit={}", q, language, stars, page, limit);
         
-        PaginatedResponse<ComicResponse> comics = comicService.getAllComics(page, limit, sortBy);
-        return ResponseEntity.ok(ApiResponse.success(comics));
+        ComicSearchResponse result = comicService.searchComics(q, language, stars, page, limit);
+        return ResponseEntity.ok()
+                .cacheControl(feedCacheControl())
+                .body(ApiResponse.success(result));
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get comic by ID", description = "Get detailed information of a specific comic")
-    public ResponseEntity<ApiResponse<ComicResponse>> getComicById(
+    public ResponseEntity<byte[]> getComicById(
             @Parameter(description = "Comic ID") 
             @PathVariable Long id
     ) {
         log.debug("Getting comic by id: {}", id);
         
-        ComicResponse comic = comicService.getComicById(id);
-        return ResponseEntity.ok(ApiResponse.success(comic));
+        return json(comicResponseCache.getComicDetail(id), detailCacheControl());
     }
     
     @GetMapping("/new")
     @Operation(summary = "Get new comics", description = "Get list of newly added comics")
-    public ResponseEntity<ApiResponse<PaginatedResponse<ComicResponse>>> getNewComics(
+    public ResponseEntity<byte[]> getNewComics(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit
+            @RequestParam(defaultValue = "20") int limit,            
+            @Parameter(description = "Opaque cursor from pagination.nextCursor (empty for the first page)") 
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Include totalItems/totalPages (default: true for page requests, false for cursor requests)") 
+            @RequestParam(required = false) Boolean includeTotal
     ) {
-        log.debug("Getting new comics: page={}, limit={}", page, limit);
+        log.debug("Getting new comics: page={}, limit={}, cursor={}", page, limit, cursor);
         
-        PaginatedResponse<ComicResponse> comics = comicService.getNewComics(page, limit);
-        return ResponseEntity.ok(ApiResponse.success(comics));
+        SerializedResponse body = comicResponseCache.getFeedPage(
+                FeedKey.newComics(page, limit, includeTotal), cursor,
+                () -> comicService.getNewComics(page, limit, cursor, includeTotal));
+        return json(body, feedCacheControl());
     }
     
     @GetMapping("/language/{language}")
     @Operation(summary = "Get comics by language", description = "Get comics filtered by programming language")
-    public ResponseEntity<ApiResponse<PaginatedResponse<ComicResponse>>> getComicsByLanguage(
+    public ResponseEntity<byte[]> getComicsByLanguage(
             @Parameter(description = "Programming language") 
             @PathVariable String language,
             
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit
+            @RequestParam(defaultValue = "20") int limit,            
+            @Parameter(description = "Opaque cursor from pagination.nextCursor (empty for the first page)") 
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Include totalItems/totalPages (default: true for page requests, false for cursor requests)") 
+            @RequestParam(required = false) Boolean includeTotal
     ) {
-        log.debug("Getting comics by language: {}, page={}, limit={}", language, page, limit);
+        log.debug("Getting comics by language: {}, page={}, limit={}, cursor={}", language, page, limit, cursor);
         
-        PaginatedResponse<ComicResponse> comics = comicService.getComicsByLanguage(language, page, limit);
-        return ResponseEntity.ok(ApiResponse.success(comics));
+        SerializedResponse body = comicResponseCache.getFeedPage(
+                FeedKey.language(language, page, limit, includeTotal), cursor,
+                () -> comicService.getComicsByLanguage(language, page, limit, cursor, includeTotal));
+        return json(body, feedCacheControl());
     }
     
     @PostMapping("/{id}/like")
-    @Operation(summary = "Like a comic", description = "Increment like count for a comic")
+    @Operation(summary = "Like a comic", description = "Like a comic as the authenticated user (idempotent)")
+    @SecurityRequirement(name = "Bearer Authentication")
     public ResponseEntity<ApiResponse<Map<String, Object>>> likeComic(
+            Authentication authentication,
             @Parameter(description = "Comic ID") 
             @PathVariable Long id
     ) {
-        log.debug("Liking comic: {}", id);
+        FirebaseUserDetails userDetails = (FirebaseUserDetails) authentication.getPrincipal();
+        log.debug("Liking comic: {} by user: {}", id, userDetails.getUid());
         
-        comicService.incrementLikes(id);
+        boolean changed = comicLikeService.like(userDetails.getUid(), id);
         
         Map<String, Object> response = new HashMap<>();
         response.put("comicId", id);
         response.put("action", "liked");
+        response.put("liked", true);
+        response.put("changed", changed);
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @DeleteMapping("/{id}/like")
+    @Operation(summary = "Unlike a comic", description = "Remove the authenticated user's like (idempotent)")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> unlikeComic(
+            Authentication authentication,
+            @Parameter(description = "Comic ID") 
+            @PathVariable Long id
+    ) {
+        FirebaseUserDetails userDetails = (FirebaseUserDetails) authentication.getPrincipal();
+        log.debug("Unliking comic: {} by user: {}", id, userDetails.getUid());
+        
+        boolean changed = comicLikeService.unlike(userDetails.getUid(), id);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("comicId", id);
+        response.put("action", "unliked");
+        response.put("liked", false);
+        response.put("changed", changed);
         
         return ResponseEntity.ok(ApiResponse.success(response));
     }
@@ -114,4 +210,31 @@ public class ComicController {
         
         return ResponseEntity.ok(ApiResponse.success(response));
     }
+    
+    /**
+     * Pre-serialized ApiResponse body, written to the response as-is.
+     * With ETag / Last-Modified set, Spring answers matching conditional GETs with 304 and no body.
+     */
+    private ResponseEntity<byte[]> json(SerializedResponse body, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .eTag(body.etag());
+        if (body.updatedAt() != null) {
+            response.lastModified(ComicResponseCache.toEpochMillis(body.updatedAt()));
+        }
+        return response.body(body.json());
+    }
+    
+    private CacheControl feedCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(feedMaxAgeSeconds))
+                .sMaxAge(Duration.ofSeconds(feedSharedMaxAgeSeconds))
+                .cachePublic();
+    }
+    
+    private CacheControl detailCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(detailMaxAgeSeconds))
+                .sMaxAge(Duration.ofSeconds(detailSharedMaxAgeSeconds))
+                .cachePublic();
+    }
 }
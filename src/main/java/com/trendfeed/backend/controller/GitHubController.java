@@ -2,6 +2,7 @@ package com.trendfeed.backend.controller;
 
 import com.trendfeed.backend.entity.GitHubEntity;
 import com.trendfeed.backend.service.GitHubService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,7 +11,13 @@ import java.util.List;
 /*
  * - GET  /api/github/ingest?fullName=owner/repo  : 단일 수집 (테스트용)
  * - POST /api/github/crawl                       : 스케줄러 즉시 실행
- * - GET  /api/ai/candidates?limit=3              : 후보 반환
+ * - POST /api/github/crawl/delta                 : 증분 수집 즉시 실행
+ * - POST /api/github/refresh                     : 저장된 리포 GraphQL 재수집 즉시 실행
+ * - POST /api/github/rescore                     : 저장된 성장률로 전체 재채점 (GitHub 호출 없음)
+ * - GET  /api/ai/candidates?limit=3              : 후보 반환 (받은 즉시 완료 처리)
+ * - POST /api/ai/candidates/claim?limit=3&leaseSeconds=900 : 워커용 lease claim
+ * - POST /api/ai/candidates/{id}/ack?leaseToken=  : 작업 완료
+ * - POST /api/ai/candidates/{id}/nack?leaseToken= : 작업 실패 (lease 반납 → 재시도)
  */
 @RestController
 @RequestMapping("/api")
@@ -41,6 +48,29 @@ public class GitHubController {
         return ResponseEntity.ok("crawl started and finished (see logs)");
     }
 
+    // 증분 즉시 수집
+    @PostMapping("/github/crawl/delta")
+    public ResponseEntity<String> crawlDeltaNow() {
+        service.crawlDeltaAndEvaluate();
+        return ResponseEntity.ok("delta crawl started and finished (see logs)");
+    }
+
+    // GraphQL 재수집 즉시 실행
+    @PostMapping("/github/refresh")
+    public ResponseEntity<String> refreshNow() {
+        GitHubService.RefreshResult result = service.refreshKnownRepositoriesNow();
+        return ResponseEntity.ok("refreshed: %d repos, failed batches: %d, missing: %d"
+                .formatted(result.refreshed(), result.failedBatches(), result.missing()));
+    }
+
+    // 전체 재채점
+    @PostMapping("/github/rescore")
+    public ResponseEntity<String> rescoreNow() {
+        GitHubService.RescoreResult result = service.rescoreAll();
+        return ResponseEntity.ok("rescored: %d repos, promoted: %d, demoted: %d, queued: %d"
+                .formatted(result.rescored(), result.promoted(), result.demoted(), result.queued()));
+    }
+
     // 후보 반환
     @GetMapping("/ai/candidates")
     public ResponseEntity<List<GitHubEntity>> getCandidates(@RequestParam(defaultValue = "3") int limit) {
@@ -48,4 +78,31 @@ public class GitHubController {
         List<GitHubEntity> repos = service.getOldestUngivenCandidatesAndMark(limit);
         return ResponseEntity.ok(repos);
     }
+
+    // 워커용 claim
+    @PostMapping("/ai/candidates/claim")
+    public ResponseEntity<List<GitHubService.CandidateLease>> claimCandidates(
+            @RequestParam(defaultValue = "3") int limit,
+            @RequestParam(required = false) Long leaseSeconds) {
+        if (limit <= 0) limit = 1;
+        return ResponseEntity.ok(service.claimCandidates(limit, leaseSeconds));
+    }
+
+    // 작업 완료
+    @PostMapping("/ai/candidates/{id}/ack")
+    public ResponseEntity<String> ackCandidate(@PathVariable Long id, @RequestParam String leaseToken) {
+        if (!service.ackCandidate(id, leaseToken)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("lease lost: " + id);
+        }
+        return ResponseEntity.ok("acked: " + id);
+    }
+
+    // 작업 실패
+    @PostMapping("/ai/candidates/{id}/nack")
+    public ResponseEntity<String> nackCandidate(@PathVariable Long id, @RequestParam String leaseToken) {
+        if (!service.nackCandidate(id, leaseToken)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("lease lost: " + id);
+        }
+        return ResponseEntity.ok("released: " + id);
+    }
 }
@@ -3,6 +3,7 @@ package com.trendfeed.backend.controller;
 import com.trendfeed.backend.dto.request.UpdateProfileRequest;
 import com.trendfeed.backend.dto.response.ApiResponse;
 import com.trendfeed.backend.dto.response.ComicResponse;
+import com.trendfeed.backend.dto.response.ComicViewerStateResponse;
 import com.trendfeed.backend.dto.response.PaginatedResponse;
 import com.trendfeed.backend.dto.response.UserResponse;
 import com.trendfeed.backend.security.FirebaseUserDetails;
@@ -13,10 +14,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -72,6 +77,36 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(savedComics));
     }
     
+    @GetMapping("/comics/state")
+    @Operation(summary = "Get viewer state for comics", description = "Get saved/liked flags for a batch of comic ids (e.g. one feed page)")
+    public ResponseEntity<ApiResponse<List<ComicViewerStateResponse>>> getViewerState(
+            Authentication authentication,
+            @RequestParam List<Long> ids
+    ) {
+        FirebaseUserDetails userDetails = (FirebaseUserDetails) authentication.getPrincipal();
+        String uid = userDetails.getUid();
+        
+        log.debug("Getting viewer state for user: {} ({} comics)", uid, ids.size());
+        
+        List<ComicViewerStateResponse> states = userService.getViewerState(uid, ids);
+        return ResponseEntity.ok(ApiResponse.success(states));
+    }
+    
+    @GetMapping(value = "/saved/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export saved comics", description = "Stream the whole saved collection as NDJSON (one comic per line, newest first)")
+    public ResponseEntity<StreamingResponseBody> exportSavedComics(Authentication authentication) {
+        FirebaseUserDetails userDetails = (FirebaseUserDetails) authentication.getPrincipal();
+        String uid = userDetails.getUid();
+        
+        log.debug("Exporting saved comics for user: {}", uid);
+        
+        StreamingResponseBody body = out -> userService.exportSavedComics(uid, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"saved-comics.ndjson\"")
+                .body(body);
+    }
+    
     @PostMapping("/saved")
     @Operation(summary = "Save a comic", description = "Save a comic to user's collection")
     public ResponseEntity<ApiResponse<Map<String, Object>>> saveComic(
@@ -1,5 +1,7 @@
 package com.trendfeed.backend.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,12 +21,16 @@ public class ComicResponse {
     private String repoUrl;
     private Integer stars;
     private String language;
-    private List<Map<String, Object>> panels;
-    private List<String> keyInsights;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Map<String, Object>> panels;      // Detail only (GET /api/comics/{id})
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> keyInsights;              // Detail only (GET /api/comics/{id})
     private Boolean isNew;
     private Integer likes;
     private Integer shares;
     private Integer comments;
     private LocalDateTime createdAt;
     private LocalDateTime savedAt; // For saved comics
+    @JsonIgnore
+    private LocalDateTime updatedAt; // Detail only, cache/ETag key (not serialized)
 }
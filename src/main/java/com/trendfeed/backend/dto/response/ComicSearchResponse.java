@@ -0,0 +1,28 @@
+package com.trendfeed.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComicSearchResponse {
+    private List<ComicResponse> data;  // 관련도 순
+    private PaginatedResponse.PaginationInfo pagination;
+    private Facets facets;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Facets {
+        private Map<String, Long> language;  // 언어별 개수 (개수 내림차순, 스타 필터 적용)
+        private Map<String, Long> stars;     // 스타 구간별 개수 (lt100, 100-1k, 1k-10k, 10k+ / 언어 필터 적용)
+    }
+}
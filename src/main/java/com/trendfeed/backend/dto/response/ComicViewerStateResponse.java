@@ -0,0 +1,16 @@
+package com.trendfeed.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComicViewerStateResponse {
+    private Long comicId;
+    private boolean saved;
+    private boolean liked;
+}
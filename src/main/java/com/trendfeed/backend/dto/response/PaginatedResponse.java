@@ -1,5 +1,6 @@
 package com.trendfeed.backend.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,10 +20,13 @@ public class PaginatedResponse<T> {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PaginationInfo {
-        private int currentPage;
-        private int totalPages;
-        private long totalItems;
+        private Integer currentPage;  // 커서 요청이면 null
+        private Integer totalPages;   // 전체 개수를 세지 않았으면 null
+        private Long totalItems;      // 전체 개수를 세지 않았으면 null
         private int itemsPerPage;
+        private String nextCursor;    // 커서 페이지네이션: 다음 페이지 요청 시 cursor 로 전달
+        private Boolean hasNext;
     }
 }
@@ -31,7 +31,7 @@ public class Comic {
     private String repoUrl;
     
     @Builder.Default
-    @Column(name = "stars")
+    @Column(name = "stars", nullable = false)
     private Integer stars = 0;
     
     @Column(name = "language", length = 100)
@@ -50,17 +50,21 @@ public class Comic {
     private Boolean isNew = true;
     
     @Builder.Default
-    @Column(name = "likes")
+    @Column(name = "likes", nullable = false)
     private Integer likes = 0;
     
     @Builder.Default
-    @Column(name = "shares")
+    @Column(name = "shares", nullable = false)
     private Integer shares = 0;
     
     @Builder.Default
     @Column(name = "comments")
     private Integer comments = 0;
     
+    // Time-decayed engagement score, maintained in SQL by ComicCounterService (DB default on insert)
+    @Column(name = "hot_score", insertable = false, updatable = false)
+    private Double hotScore;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,34 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "comic_likes",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_uid", "comic_id"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ComicLike {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_uid", nullable = false)
+    private String userUid;
+    
+    @Column(name = "comic_id", nullable = false)
+    private Long comicId;
+    
+    @CreationTimestamp
+    @Column(name = "liked_at", nullable = false, updatable = false)
+    private LocalDateTime likedAt;
+}
@@ -0,0 +1,37 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/*
+ * 수집 종류별 워터마크 (예: 증분 수집은 "이 시각 이후 push 된 리포" 를 검색)
+ * 리포별 lastCrawledAt 과 달리 수집이 끝까지 성공했을 때만 전진한다
+ */
+@Entity
+@Table(name = "crawl_watermarks")
+public class CrawlWatermarkEntity {
+
+    @Id
+    private String name;
+
+    private OffsetDateTime watermark;   // 성공한 수집의 시작 시각
+    private OffsetDateTime updatedAt;
+
+    public CrawlWatermarkEntity() {}
+
+    public CrawlWatermarkEntity(String name, OffsetDateTime watermark) {
+        this.name = name;
+        this.watermark = watermark;
+        this.updatedAt = OffsetDateTime.now();
+    }
+
+    // Getter/Setter
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public OffsetDateTime getWatermark() { return watermark; }
+    public void setWatermark(OffsetDateTime watermark) { this.watermark = watermark; }
+
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -32,10 +32,18 @@ public class GitHubEntity {
     private String readmeText;
     private String readmeSha;
     private String readmeEtag;
+    private String readmeLastModified;      // Last-Modified 헤더 원문
+    private Integer readmeSize;             // README 파일 크기 (bytes)
+    private OffsetDateTime readmeFetchedAt; // README 를 마지막으로 확인(200/304/404)한 시각
+    private OffsetDateTime readmePushedAt;  // README 확인 당시의 pushedAt
 
     // ===== 트렌드 분석용 =====
     private Integer previousStars;
     private Double growthRate;      // 증가율 (%)
+    private Double starVelocity1d;  // 최근 1일 스타 증가 속도 (stars/day)
+    private Double starVelocity7d;  // 최근 7일 스타 증가 속도 (stars/day)
+    private Double starVelocity30d; // 최근 30일 스타 증가 속도 (stars/day)
+    private Double starAcceleration; // 7일 속도 - 직전 7일 속도
     private Double trendScore;      // 최종 점수
     private Integer trendStage;     // 0: 기본 / 1: 1차관심 / 2: 후보로 승격
     private OffsetDateTime lastCheckedAt;
@@ -91,12 +99,36 @@ public class GitHubEntity {
     public String getReadmeEtag() { return readmeEtag; }
     public void setReadmeEtag(String readmeEtag) { this.readmeEtag = readmeEtag; }
 
+    public String getReadmeLastModified() { return readmeLastModified; }
+    public void setReadmeLastModified(String readmeLastModified) { this.readmeLastModified = readmeLastModified; }
+
+    public Integer getReadmeSize() { return readmeSize; }
+    public void setReadmeSize(Integer readmeSize) { this.readmeSize = readmeSize; }
+
+    public OffsetDateTime getReadmeFetchedAt() { return readmeFetchedAt; }
+    public void setReadmeFetchedAt(OffsetDateTime readmeFetchedAt) { this.readmeFetchedAt = readmeFetchedAt; }
+
+    public OffsetDateTime getReadmePushedAt() { return readmePushedAt; }
+    public void setReadmePushedAt(OffsetDateTime readmePushedAt) { this.readmePushedAt = readmePushedAt; }
+
     public Integer getPreviousStars() { return previousStars; }
     public void setPreviousStars(Integer previousStars) { this.previousStars = previousStars; }
 
     public Double getGrowthRate() { return growthRate; }
     public void setGrowthRate(Double growthRate) { this.growthRate = growthRate; }
 
+    public Double getStarVelocity1d() { return starVelocity1d; }
+    public void setStarVelocity1d(Double starVelocity1d) { this.starVelocity1d = starVelocity1d; }
+
+    public Double getStarVelocity7d() { return starVelocity7d; }
+    public void setStarVelocity7d(Double starVelocity7d) { this.starVelocity7d = starVelocity7d; }
+
+    public Double getStarVelocity30d() { return starVelocity30d; }
+    public void setStarVelocity30d(Double starVelocity30d) { this.starVelocity30d = starVelocity30d; }
+
+    public Double getStarAcceleration() { return starAcceleration; }
+    public void setStarAcceleration(Double starAcceleration) { this.starAcceleration = starAcceleration; }
+
     public Double getTrendScore() { return trendScore; }
     public void setTrendScore(Double trendScore) { this.trendScore = trendScore; }
 
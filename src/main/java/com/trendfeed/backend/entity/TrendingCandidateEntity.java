@@ -14,7 +14,13 @@ public class TrendingCandidateEntity {
     private Long repoId;
     private String fullName;
     private OffsetDateTime promotedAt;
-    private Boolean givenToAI;
+    private Boolean givenToAI;      // AI 작업 완료(ack) 여부
+
+    // ===== 작업 큐 lease =====
+    private String leaseToken;           // claim 마다 발급 (ack/nack 시 소유 확인)
+    private OffsetDateTime leasedUntil;  // 이 시각이 지나면 다른 워커가 다시 claim 가능
+    private Integer attempts;            // claim 횟수
+    private OffsetDateTime completedAt;  // ack 시각
 
     public TrendingCandidateEntity() {}
 
@@ -23,6 +29,7 @@ public class TrendingCandidateEntity {
         this.fullName = fullName;
         this.promotedAt = OffsetDateTime.now();
         this.givenToAI = false;
+        this.attempts = 0;
     }
 
     // Getter/Setter
@@ -40,4 +47,16 @@ public class TrendingCandidateEntity {
 
     public Boolean getGivenToAI() { return givenToAI; }
     public void setGivenToAI(Boolean givenToAI) { this.givenToAI = givenToAI; }
+
+    public String getLeaseToken() { return leaseToken; }
+    public void setLeaseToken(String leaseToken) { this.leaseToken = leaseToken; }
+
+    public OffsetDateTime getLeasedUntil() { return leasedUntil; }
+    public void setLeasedUntil(OffsetDateTime leasedUntil) { this.leasedUntil = leasedUntil; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public OffsetDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(OffsetDateTime completedAt) { this.completedAt = completedAt; }
 }
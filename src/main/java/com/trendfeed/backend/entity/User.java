@@ -29,6 +29,10 @@ public class User {
     @Column(name = "photo_url", columnDefinition = "TEXT")
     private String photoUrl;
     
+    // Maintained by a saved_comics trigger (V13), never written by JPA
+    @Column(name = "saved_comics_count", insertable = false, updatable = false)
+    private Integer savedComicsCount;
+    
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private UserPreferences preferences;
     
@@ -0,0 +1,49 @@
+package com.trendfeed.backend.entity;
+
+import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Entity
+@Table(name = "webhook_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookOutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+    
+    @Column(name = "event_id")
+    private String eventId;
+    
+    @Column(name = "payload", columnDefinition = "jsonb", nullable = false)
+    @Type(JsonBinaryType.class)
+    private Map<String, Object> payload;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // 비즈니스 메서드
+    public void markAsProcessed() {
+        this.processedAt = LocalDateTime.now();
+    }
+}
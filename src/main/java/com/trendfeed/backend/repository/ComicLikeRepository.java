@@ -0,0 +1,36 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.ComicLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ComicLikeRepository extends JpaRepository<ComicLike, Long> {
+    
+    // Returns 1 if the like was added, 0 if it already existed
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO comic_likes (user_uid, comic_id, liked_at)
+            VALUES (:userUid, :comicId, CURRENT_TIMESTAMP)
+            ON CONFLICT (user_uid, comic_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userUid") String userUid, @Param("comicId") Long comicId);
+    
+    // Returns 1 if the like was removed, 0 if there was none
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ComicLike cl WHERE cl.userUid = :userUid AND cl.comicId = :comicId")
+    int deleteByUserUidAndComicId(@Param("userUid") String userUid, @Param("comicId") Long comicId);
+    
+    @Query("SELECT cl.comicId FROM ComicLike cl WHERE cl.userUid = :userUid")
+    List<Long> findComicIdsByUserUid(@Param("userUid") String userUid);
+    
+    long countByUserUid(String userUid);
+}
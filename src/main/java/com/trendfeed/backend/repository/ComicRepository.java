@@ -1,11 +1,19 @@
 package com.trendfeed.backend.repository;
 
 import com.trendfeed.backend.entity.Comic;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,7 +21,44 @@ public interface ComicRepository extends JpaRepository<Comic, Long> {
     
     Optional<Comic> findByRepoName(String repoName);
     
-    Page<Comic> findByIsNewTrue(Pageable pageable);
+    // List queries return ComicSummary (no panels / key_insights JSONB)
+    Page<ComicSummary> findAllBy(Pageable pageable);
     
-    Page<Comic> findByLanguage(String language, Pageable pageable);
+    Page<ComicSummary> findByIsNewTrue(Pageable pageable);
+    
+    Page<ComicSummary> findByLanguage(String language, Pageable pageable);
+    
+    // Keyset (cursor) scrolling - no OFFSET, no COUNT
+    Window<ComicSummary> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<ComicSummary> findByIsNewTrue(ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<ComicSummary> findByLanguage(String language, ScrollPosition position, Sort sort, Limit limit);
+    
+    // Search hits (ids already ranked by ComicSearchService)
+    List<ComicSummary> findByIdIn(Collection<Long> ids);
+    
+    long countByIsNewTrue();
+    
+    long countByLanguage(String language);
+    
+    @Query("SELECT MAX(c.id) FROM Comic c")
+    Long findMaxId();
+    
+    /**
+     * Feed card projection - everything except the panels / key_insights JSONB columns.
+     */
+    interface ComicSummary {
+        Long getId();
+        String getRepoName();
+        String getRepoUrl();
+        Integer getStars();
+        String getLanguage();
+        Boolean getIsNew();
+        Integer getLikes();
+        Integer getShares();
+        Integer getComments();
+        LocalDateTime getCreatedAt();
+        Double getHotScore();
+    }
 }
@@ -0,0 +1,7 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.CrawlWatermarkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CrawlWatermarkRepository extends JpaRepository<CrawlWatermarkEntity, String> {
+}
@@ -1,8 +1,61 @@
 package com.trendfeed.backend.repository;
 
 import com.trendfeed.backend.entity.GitHubEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface GitHubRepository extends JpaRepository<GitHubEntity, Long> {
     GitHubEntity findByFullName(String fullName);
+
+    // 증분 수집 워터마크
+    @Query("SELECT MAX(g.lastCrawledAt) FROM GitHubEntity g")
+    OffsetDateTime findMaxLastCrawledAt();
+
+    // README 재수집 판단용 상태만 조회 (readmeText 제외)
+    @Query("""
+            SELECT g.id AS id,
+                   g.readmeEtag AS readmeEtag,
+                   g.readmeLastModified AS readmeLastModified,
+                   g.readmeSize AS readmeSize,
+                   g.readmeFetchedAt AS readmeFetchedAt,
+                   g.readmePushedAt AS readmePushedAt
+            FROM GitHubEntity g
+            WHERE g.id IN :ids
+            """)
+    List<ReadmeState> findReadmeStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // GraphQL 재수집 대상 (id 기준 keyset)
+    @Query("""
+            SELECT g.id AS id,
+                   g.nodeId AS nodeId,
+                   g.readmeSha AS readmeSha,
+                   g.readmeSize AS readmeSize
+            FROM GitHubEntity g
+            WHERE g.nodeId IS NOT NULL
+              AND g.id > :afterId
+            ORDER BY g.id ASC
+            """)
+    List<NodeRef> findNodeRefsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface ReadmeState {
+        Long getId();
+        String getReadmeEtag();
+        String getReadmeLastModified();
+        Integer getReadmeSize();
+        OffsetDateTime getReadmeFetchedAt();
+        OffsetDateTime getReadmePushedAt();
+    }
+
+    interface NodeRef {
+        Long getId();
+        String getNodeId();
+        String getReadmeSha();
+        Integer getReadmeSize();
+    }
 }
@@ -1,20 +1,53 @@
 package com.trendfeed.backend.repository;
 
 import com.trendfeed.backend.entity.SavedComic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SavedComicRepository extends JpaRepository<SavedComic, Long> {
     
-    @Query("SELECT sc FROM SavedComic sc JOIN FETCH sc.comic WHERE sc.userUid = :userUid ORDER BY sc.savedAt DESC")
-    Page<SavedComic> findByUserUidWithComic(@Param("userUid") String userUid, Pageable pageable);
+    @Query(value = """
+            SELECT c.id AS id, c.repoName AS repoName, c.repoUrl AS repoUrl, c.stars AS stars,
+                   c.language AS language, c.isNew AS isNew, c.likes AS likes, c.shares AS shares,
+                   c.comments AS comments, c.createdAt AS createdAt, sc.savedAt AS savedAt
+            FROM SavedComic sc JOIN sc.comic c
+            WHERE sc.userUid = :userUid
+            ORDER BY sc.savedAt DESC
+            """,
+            countQuery = "SELECT COUNT(sc) FROM SavedComic sc WHERE sc.userUid = :userUid")
+    Page<SavedComicSummary> findSummariesByUserUid(@Param("userUid") String userUid, Pageable pageable);
+    
+    /**
+     * Whole saved collection as a server-side cursor (fetched in chunks, rows are not managed entities).
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("""
+            SELECT c.id AS id, c.repoName AS repoName, c.repoUrl AS repoUrl, c.stars AS stars,
+                   c.language AS language, c.isNew AS isNew, c.likes AS likes, c.shares AS shares,
+                   c.comments AS comments, c.createdAt AS createdAt, sc.savedAt AS savedAt
+            FROM SavedComic sc JOIN sc.comic c
+            WHERE sc.userUid = :userUid
+            ORDER BY sc.savedAt DESC, sc.id DESC
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<SavedComicSummary> streamSummariesByUserUid(@Param("userUid") String userUid);
     
     Optional<SavedComic> findByUserUidAndComic_Id(String userUid, Long comicId);
     
@@ -22,5 +55,15 @@ public interface SavedComicRepository extends JpaRepository<SavedComic, Long> {
     
     long countByUserUid(String userUid);
     
+    @Query("SELECT sc.comic.id FROM SavedComic sc WHERE sc.userUid = :userUid AND sc.comic.id IN :comicIds")
+    List<Long> findSavedComicIds(@Param("userUid") String userUid, @Param("comicIds") Collection<Long> comicIds);
+    
     void deleteByUserUidAndComic_Id(String userUid, Long comicId);
+    
+    /**
+     * Saved comic list projection (comic summary + savedAt, no panels JSONB).
+     */
+    interface SavedComicSummary extends ComicRepository.ComicSummary {
+        LocalDateTime getSavedAt();
+    }
 }
@@ -2,7 +2,9 @@ package com.trendfeed.backend.repository;
 
 import com.trendfeed.backend.entity.TrendingCandidateEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -22,4 +24,72 @@ public interface TrendingCandidateRepository extends JpaRepository<TrendingCandi
     default List<TrendingCandidateEntity> findByGivenToAIFalseOrderByPromotedAtAsc(int limit) {
         return findByGivenToAIFalseOrderByPromotedAtAsc(org.springframework.data.domain.PageRequest.of(0, limit));
     }
+
+    /*
+     * 작업 큐 claim: 대기 중(미완료 + lease 없음/만료) 후보를 오래된 순으로 잠그고 lease 부여
+     *  - FOR UPDATE SKIP LOCKED → 동시에 claim 하는 워커끼리 같은 행을 받지 않고 기다리지도 않음
+     *  - UPDATE ... RETURNING 한 문장 (조회 + 표시 왕복 없음)
+     */
+    @Query(nativeQuery = true, value = """
+            UPDATE trending_candidates tc
+            SET lease_token = :leaseToken,
+                leased_until = now() + make_interval(secs => :leaseSeconds),
+                attempts = COALESCE(tc.attempts, 0) + 1
+            WHERE tc.id IN (
+                SELECT c.id FROM trending_candidates c
+                WHERE c.given_toai = false
+                  AND c.completed_at IS NULL
+                  AND (c.leased_until IS NULL OR c.leased_until < now())
+                  AND COALESCE(c.attempts, 0) < :maxAttempts
+                ORDER BY c.promoted_at ASC
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING tc.*
+            """)
+    List<TrendingCandidateEntity> claim(@Param("limit") int limit,
+                                        @Param("leaseSeconds") long leaseSeconds,
+                                        @Param("maxAttempts") int maxAttempts,
+                                        @Param("leaseToken") String leaseToken);
+
+    // 레거시 조회용: claim 과 동시에 완료 처리 (lease 없이 바로 넘겨줌)
+    @Query(nativeQuery = true, value = """
+            UPDATE trending_candidates tc
+            SET given_toai = true,
+                completed_at = now(),
+                lease_token = :leaseToken,
+                attempts = COALESCE(tc.attempts, 0) + 1
+            WHERE tc.id IN (
+                SELECT c.id FROM trending_candidates c
+                WHERE c.given_toai = false
+                  AND c.completed_at IS NULL
+                  AND (c.leased_until IS NULL OR c.leased_until < now())
+                ORDER BY c.promoted_at ASC
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING tc.*
+            """)
+    List<TrendingCandidateEntity> claimAndComplete(@Param("limit") int limit,
+                                                   @Param("leaseToken") String leaseToken);
+
+    // ack: 완료 처리 (같은 토큰으로 다시 ack 해도 성공 → 멱등)
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE trending_candidates
+            SET given_toai = true,
+                completed_at = COALESCE(completed_at, now()),
+                leased_until = NULL
+            WHERE id = :id AND lease_token = :leaseToken
+            """)
+    int ack(@Param("id") Long id, @Param("leaseToken") String leaseToken);
+
+    // nack: lease 반납 → 바로 다른 워커가 claim 가능 (attempts 는 유지)
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE trending_candidates
+            SET leased_until = NULL
+            WHERE id = :id AND lease_token = :leaseToken AND completed_at IS NULL
+            """)
+    int nack(@Param("id") Long id, @Param("leaseToken") String leaseToken);
 }
@@ -29,6 +29,30 @@ public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery
         @Param("now") LocalDateTime now
     );
     
+    /*
+     * 전송 대상 claim: 대기 / 재시도 시각 도래 / 전송 중(SENT)으로 멈춘 건을 잠그고 SENT 로 표시
+     *  - FOR UPDATE SKIP LOCKED → 여러 인스턴스가 같은 전송을 동시에 가져가지 않음
+     *  - SENT 로 멈춘 건(전송 중 종료) 은 staleBefore 이후 다시 가져감 → at-least-once
+     */
+    @Query(nativeQuery = true, value = """
+            UPDATE webhook_deliveries wd
+            SET status = 'SENT',
+                sent_at = :now
+            WHERE wd.id IN (
+                SELECT d.id FROM webhook_deliveries d
+                WHERE d.status = 'PENDING'
+                   OR (d.status = 'RETRYING' AND d.next_retry_at <= :now)
+                   OR (d.status = 'SENT' AND d.sent_at < :staleBefore)
+                ORDER BY d.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING wd.*
+            """)
+    List<WebhookDelivery> claimDue(@Param("limit") int limit,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("staleBefore") LocalDateTime staleBefore);
+    
     // 전송 대기 중인 이벤트 조회
     List<WebhookDelivery> findByStatusOrderByCreatedAtAsc(DeliveryStatus status);
     
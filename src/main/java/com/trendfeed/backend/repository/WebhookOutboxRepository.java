@@ -0,0 +1,30 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.WebhookOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookOutboxRepository extends JpaRepository<WebhookOutboxEvent, Long> {
+    
+    // 대기 중인 이벤트 배치 잠금 (다른 인스턴스가 잠근 행은 건너뜀, 트랜잭션 안에서 호출)
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM webhook_outbox
+            WHERE processed_at IS NULL
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """)
+    List<WebhookOutboxEvent> lockUnprocessed(@Param("limit") int limit);
+    
+    // 처리 완료된 오래된 이벤트 삭제
+    @Modifying
+    @Query("DELETE FROM WebhookOutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,7 +1,6 @@
 package com.trendfeed.backend.security;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
+import com.trendfeed.backend.config.SecurityConfig;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,16 +9,34 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 @Component
 @Slf4j
 public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
     
+    private final FirebaseTokenVerifier firebaseTokenVerifier;
+    
+    // Only routes that never read the principal; public reads still verify a Bearer token
+    private final RequestMatcher skippedRoutes = matchers(SecurityConfig.TOKEN_VERIFICATION_SKIPPED_ROUTES);
+    
+    public FirebaseAuthenticationFilter(FirebaseTokenVerifier firebaseTokenVerifier) {
+        this.firebaseTokenVerifier = firebaseTokenVerifier;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return skippedRoutes.matches(request);
+    }
+    
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -31,9 +48,9 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
         
         if (token != null && !token.isEmpty()) {
             try {
-                FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-                String uid = decodedToken.getUid();
-                String email = decodedToken.getEmail();
+                VerifiedIdToken decodedToken = firebaseTokenVerifier.verify(token);
+                String uid = decodedToken.uid();
+                String email = decodedToken.email();
                 
                 log.debug("Successfully verified Firebase token for user: {}", uid);
                 
@@ -41,8 +58,8 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
                 FirebaseUserDetails userDetails = new FirebaseUserDetails(
                         uid,
                         email,
-                        decodedToken.getName(),
-                        decodedToken.getPicture()
+                        decodedToken.name(),
+                        decodedToken.picture()
                 );
                 
                 UsernamePasswordAuthenticationToken authentication = 
@@ -64,6 +81,13 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private static RequestMatcher matchers(String[] patterns) {
+        PathPatternRequestMatcher.Builder builder = PathPatternRequestMatcher.withDefaults();
+        return new OrRequestMatcher(Arrays.stream(patterns)
+                .map(pattern -> (RequestMatcher) builder.matcher(pattern))
+                .toList());
+    }
+    
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,142 @@
+package com.trendfeed.backend.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Firebase ID 토큰 서명 키(JWKS) 보관
+ *  - 시작 시 한 번 받아두고 전용 스레드에서 주기적으로 갱신 → 요청 경로에서는 원격 호출 없음
+ *  - kid 로 조회, 모르는 kid 는 거절하고 백그라운드 갱신만 요청 (최소 간격 제한)
+ *  - 갱신 실패 시 기존 키 유지
+ */
+@Component
+@Slf4j
+public class FirebaseSigningKeys {
+
+    private static final Duration MIN_ON_DEMAND_INTERVAL = Duration.ofMinutes(1);
+
+    private final WebClient http;
+    private final String jwksUrl;
+    private final Duration refreshInterval;
+    private final Clock clock;
+
+    private final ThreadPoolTaskScheduler refreshScheduler = new ThreadPoolTaskScheduler();
+    private volatile Map<String, RSAPublicKey> keys = Map.of();
+    private final AtomicReference<Instant> lastOnDemandRefresh = new AtomicReference<>(Instant.EPOCH);
+
+    @Autowired
+    public FirebaseSigningKeys(
+            WebClient.Builder webClientBuilder,
+            @Value("${auth.firebase.jwks-url:https://www.googleapis.com/service_accounts/v1/jwk/securetoken@system.gserviceaccount.com}") String jwksUrl,
+            @Value("${auth.firebase.keys-refresh-minutes:60}") long refreshMinutes
+    ) {
+        this(webClientBuilder, jwksUrl, Duration.ofMinutes(refreshMinutes), Clock.systemUTC());
+    }
+
+    FirebaseSigningKeys(WebClient.Builder webClientBuilder, String jwksUrl, Duration refreshInterval, Clock clock) {
+        this.http = webClientBuilder.build();
+        this.jwksUrl = jwksUrl;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh();
+        refreshScheduler.setPoolSize(1);
+        refreshScheduler.setThreadNamePrefix("firebase-keys-");
+        refreshScheduler.initialize();
+        refreshScheduler.scheduleWithFixedDelay(this::refresh,
+                clock.instant().plus(refreshInterval), refreshInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refreshScheduler.shutdown();
+    }
+
+    /*
+     * kid 에 해당하는 공개키 (없으면 null + 백그라운드 갱신 요청)
+     */
+    public RSAPublicKey get(String kid) {
+        RSAPublicKey key = (kid != null) ? keys.get(kid) : null;
+        if (key == null) {
+            requestRefresh();
+        }
+        return key;
+    }
+
+    /*
+     * JWKS 를 받아 키 집합 교체 (실패하면 기존 키 유지)
+     * @return 갱신 성공 여부
+     */
+    @SuppressWarnings("unchecked")
+    public boolean refresh() {
+        try {
+            Map<String, Object> jwks = http.get()
+                    .uri(jwksUrl)
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block(Duration.ofSeconds(10));
+            List<Map<String, Object>> entries = (jwks != null) ? (List<Map<String, Object>>) jwks.get("keys") : null;
+            if (entries == null || entries.isEmpty()) {
+                log.warn("Firebase JWKS has no keys: url={}", jwksUrl);
+                return false;
+            }
+
+            Map<String, RSAPublicKey> loaded = new HashMap<>();
+            for (Map<String, Object> entry : entries) {
+                if ("RSA".equals(entry.get("kty")) && entry.get("kid") != null) {
+                    loaded.put((String) entry.get("kid"), rsaKey((String) entry.get("n"), (String) entry.get("e")));
+                }
+            }
+            keys = Map.copyOf(loaded);
+            log.info("Firebase signing keys refreshed: kids={}", loaded.keySet());
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to refresh Firebase signing keys: url={}, keeping {} keys", jwksUrl, keys.size(), e);
+            return false;
+        }
+    }
+
+    private void requestRefresh() {
+        Instant now = clock.instant();
+        Instant last = lastOnDemandRefresh.get();
+        if (now.isBefore(last.plus(MIN_ON_DEMAND_INTERVAL)) || !lastOnDemandRefresh.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            refreshScheduler.execute(this::refresh);
+        } catch (IllegalStateException e) {
+            // 스케줄러 시작 전/종료 후 → 다음 주기 갱신에 맡김
+        }
+    }
+
+    private static RSAPublicKey rsaKey(String modulus, String exponent) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        RSAPublicKeySpec spec = new RSAPublicKeySpec(
+                new BigInteger(1, decoder.decode(modulus)),
+                new BigInteger(1, decoder.decode(exponent)));
+        return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(spec);
+    }
+}
@@ -0,0 +1,198 @@
+package com.trendfeed.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.firebase.ErrorCode;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.ImplFirebaseTrampolines;
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuthException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Firebase ID 토큰 로컬 검증 + 검증 결과 캐시
+ *  - 서명: 미리 받아둔 서명 키(FirebaseSigningKeys)에서 kid 로 찾은 키로 RS256 검증 (요청 중 원격 호출 없음)
+ *  - 클레임: exp / iat / auth_time / aud(프로젝트 id) / iss / sub (Admin SDK verifyIdToken 과 같은 규칙)
+ *  - 캐시 키는 토큰의 SHA-256 (토큰 원문은 보관하지 않음), 수명 = min(exp - now, 최대 TTL)
+ *  - 실패한 검증은 캐시하지 않음
+ */
+@Component
+@Slf4j
+public class FirebaseTokenVerifier {
+
+    private static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    private final FirebaseSigningKeys signingKeys;
+    private final String projectId;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<String, VerifiedIdToken> verified;
+
+    @Autowired
+    public FirebaseTokenVerifier(
+            FirebaseSigningKeys signingKeys,
+            FirebaseApp firebaseApp,
+            @Value("${auth.firebase.project-id:}") String projectId,
+            @Value("${auth.token-cache.max-size:10000}") long maxSize,
+            @Value("${auth.token-cache.max-ttl-minutes:60}") long maxTtlMinutes
+    ) {
+        // 설정이 없으면 서비스 계정의 프로젝트 id
+        this(signingKeys,
+                projectId.isBlank() ? ImplFirebaseTrampolines.getProjectId(firebaseApp) : projectId,
+                maxSize, Duration.ofMinutes(maxTtlMinutes), Clock.systemUTC());
+    }
+
+    FirebaseTokenVerifier(FirebaseSigningKeys signingKeys, String projectId, long maxSize, Duration maxTtl, Clock clock) {
+        if (projectId == null || projectId.isBlank()) {
+            throw new IllegalStateException("Firebase project id is not configured (auth.firebase.project-id)");
+        }
+        this.signingKeys = signingKeys;
+        this.projectId = projectId;
+        this.clock = clock;
+        long maxTtlNanos = maxTtl.toNanos();
+        // 캐시 만료와 exp 검사가 같은 시계를 씀
+        Ticker ticker = () -> TimeUnit.MILLISECONDS.toNanos(clock.millis());
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .expireAfter(Expiry.<String, VerifiedIdToken>creating(
+                        (key, token) -> Duration.ofNanos(ttlNanos(token, maxTtlNanos))))
+                .recordStats()
+                .build();
+    }
+
+    public VerifiedIdToken verify(String idToken) throws FirebaseAuthException {
+        String key = hash(idToken);
+
+        VerifiedIdToken cached = verified.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedIdToken token = verifyLocally(idToken);
+        if (ttlNanos(token, Long.MAX_VALUE) > 0) {
+            verified.put(key, token);
+        }
+        return token;
+    }
+
+    @SuppressWarnings("unchecked")
+    private VerifiedIdToken verifyLocally(String idToken) throws FirebaseAuthException {
+        String[] parts = (idToken != null) ? idToken.split("\\.", -1) : new String[0];
+        if (parts.length != 3) {
+            throw invalid("Firebase ID token must have 3 parts");
+        }
+
+        Map<String, Object> header;
+        Map<String, Object> claims;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            header = objectMapper.readValue(decoder.decode(parts[0]), Map.class);
+            claims = objectMapper.readValue(decoder.decode(parts[1]), Map.class);
+            signature = decoder.decode(parts[2]);
+        } catch (Exception e) {
+            throw invalid("Firebase ID token could not be parsed");
+        }
+
+        // 서명
+        if (!"RS256".equals(header.get("alg"))) {
+            throw invalid("Firebase ID token has incorrect algorithm: " + header.get("alg"));
+        }
+        Object kid = header.get("kid");
+        RSAPublicKey key = (kid instanceof String k) ? signingKeys.get(k) : null;
+        if (key == null) {
+            throw invalid("Firebase ID token has unknown kid: " + kid);
+        }
+        if (!signatureMatches(key, parts[0] + "." + parts[1], signature)) {
+            throw invalid("Firebase ID token has invalid signature");
+        }
+
+        // 클레임
+        long now = clock.instant().getEpochSecond();
+        long exp = epochSeconds(claims.get("exp"));
+        if (exp <= now) {
+            throw new FirebaseAuthException(ErrorCode.INVALID_ARGUMENT, "Firebase ID token has expired",
+                    null, null, AuthErrorCode.EXPIRED_ID_TOKEN);
+        }
+        if (epochSeconds(claims.get("iat")) > now + CLOCK_SKEW_SECONDS) {
+            throw invalid("Firebase ID token is issued in the future");
+        }
+        if (claims.containsKey("auth_time") && epochSeconds(claims.get("auth_time")) > now + CLOCK_SKEW_SECONDS) {
+            throw invalid("Firebase ID token has auth_time in the future");
+        }
+        if (!projectId.equals(claims.get("aud"))) {
+            throw invalid("Firebase ID token has incorrect audience: " + claims.get("aud"));
+        }
+        if (!(ISSUER_PREFIX + projectId).equals(claims.get("iss"))) {
+            throw invalid("Firebase ID token has incorrect issuer: " + claims.get("iss"));
+        }
+        if (!(claims.get("sub") instanceof String sub) || sub.isEmpty() || sub.length() > 128) {
+            throw invalid("Firebase ID token has invalid subject");
+        }
+
+        return new VerifiedIdToken(
+                sub,
+                (String) claims.get("email"),
+                (String) claims.get("name"),
+                (String) claims.get("picture"),
+                exp,
+                Map.copyOf(claims)
+        );
+    }
+
+    private static boolean signatureMatches(RSAPublicKey key, String signedContent, byte[] signature) {
+        try {
+            Signature verifier = Signature.getInstance("SHA256withRSA");
+            verifier.initVerify(key);
+            verifier.update(signedContent.getBytes(StandardCharsets.US_ASCII));
+            return verifier.verify(signature);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static long epochSeconds(Object claim) throws FirebaseAuthException {
+        if (!(claim instanceof Number seconds)) {
+            throw invalid("Firebase ID token is missing a time claim");
+        }
+        return seconds.longValue();
+    }
+
+    private static FirebaseAuthException invalid(String message) {
+        return new FirebaseAuthException(ErrorCode.INVALID_ARGUMENT, message, null, null, AuthErrorCode.INVALID_ID_TOKEN);
+    }
+
+    private long ttlNanos(VerifiedIdToken token, long maxTtlNanos) {
+        long remainingMillis = token.expiresAtEpochSecond() * 1000 - clock.millis();
+        return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), maxTtlNanos));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.trendfeed.backend.security;
+
+import java.util.Map;
+
+/*
+ * 서명/클레임 검증을 통과한 Firebase ID 토큰 (uid = sub)
+ */
+public record VerifiedIdToken(
+        String uid,
+        String email,
+        String name,
+        String picture,
+        long expiresAtEpochSecond,
+        Map<String, Object> claims
+) {}
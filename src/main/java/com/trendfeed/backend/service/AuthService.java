@@ -1,13 +1,13 @@
 package com.trendfeed.backend.service;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import com.trendfeed.backend.dto.response.UserResponse;
 import com.trendfeed.backend.entity.User;
 import com.trendfeed.backend.entity.UserPreferences;
 import com.trendfeed.backend.exception.CustomException;
 import com.trendfeed.backend.exception.ErrorCode;
 import com.trendfeed.backend.repository.UserRepository;
+import com.trendfeed.backend.security.FirebaseTokenVerifier;
+import com.trendfeed.backend.security.VerifiedIdToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,23 +22,23 @@ import java.util.Map;
 public class AuthService {
     
     private final UserRepository userRepository;
+    private final FirebaseTokenVerifier firebaseTokenVerifier;
+    private final UserService userService;
     
     @Transactional
     public UserResponse verifyToken(String token) {
         try {
-            FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-            String uid = decodedToken.getUid();
-            String email = decodedToken.getEmail();
-            String displayName = decodedToken.getName();
-            String photoUrl = decodedToken.getPicture();
+            VerifiedIdToken decodedToken = firebaseTokenVerifier.verify(token);
+            String uid = decodedToken.uid();
+            String email = decodedToken.email();
+            String displayName = decodedToken.name();
+            String photoUrl = decodedToken.picture();
             
             log.debug("Token verified for user: {}", uid);
             
-            // Get or create user
-            User user = userRepository.findById(uid)
-                    .orElseGet(() -> createNewUser(uid, email, displayName, photoUrl));
-            
-            return mapToUserResponse(user);
+            // Get (cached profile) or create user
+            return userService.findUserProfile(uid)
+                    .orElseGet(() -> mapToUserResponse(createNewUser(uid, email, displayName, photoUrl)));
             
         } catch (Exception e) {
             log.error("Failed to verify Firebase token: {}", e.getMessage());
@@ -0,0 +1,117 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.config.CacheConfig;
+import com.trendfeed.backend.repository.ComicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 코믹 캐시 무효화
+ *  - 카운터 flush: 해당 코믹 상세 + 피드 페이지 (피드는 간격 제한)
+ *  - 그 외 쓰기: 커밋 후 코믹 상세 + 피드 페이지 (동시 조회가 옛 값을 다시 캐시하지 않도록)
+ *  - 새 코믹은 AI 파이프라인이 DB 에 직접 넣으므로 MAX(id) 폴링으로 감지
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComicCacheService {
+    
+    private final CacheManager cacheManager;
+    private final ComicRepository comicRepository;
+    
+    private final AtomicLong lastSeenMaxId = new AtomicLong(-1);
+    private final AtomicLong lastCounterFeedClear = new AtomicLong(0);
+    
+    @Value("${comics.cache.counter-feed-interval-ms:5000}")
+    private long counterFeedIntervalMs;
+    
+    /*
+     * 코믹 변경 → 상세 + 피드 전체
+     */
+    public void evictComic(Long comicId) {
+        afterCommit(() -> {
+            evict(CacheConfig.COMIC_DETAIL, comicId);
+            clearFeeds();
+        });
+    }
+    
+    /*
+     * 카운터 flush → 상세는 바로, 피드는 counter-feed-interval 에 한 번만
+     */
+    public void evictCounters(Collection<Long> comicIds) {
+        comicIds.forEach(id -> evict(CacheConfig.COMIC_DETAIL, id));
+        
+        long now = System.currentTimeMillis();
+        long last = lastCounterFeedClear.get();
+        if (now - last >= counterFeedIntervalMs && lastCounterFeedClear.compareAndSet(last, now)) {
+            clearFeeds();
+        }
+    }
+    
+    /*
+     * 폴링으로 확인한 최대 id 이하인지
+     */
+    public boolean isKnownComicId(Long comicId) {
+        return comicId != null && comicId > 0 && comicId <= lastSeenMaxId.get();
+    }
+    
+    /*
+     * 피드 정렬/내용 변경 → 피드 전체
+     */
+    public void evictFeeds() {
+        afterCommit(this::clearFeeds);
+    }
+    
+    @Scheduled(fixedDelayString = "${comics.cache.insert-check-interval-ms:30000}")
+    public void detectNewComics() {
+        Long maxId = comicRepository.findMaxId();
+        long current = (maxId == null) ? 0L : maxId;
+        
+        long previous = lastSeenMaxId.getAndSet(current);
+        if (previous >= 0 && previous != current) {
+            log.debug("New comics detected (max id {} -> {}), clearing feed cache", previous, current);
+            clearFeeds();
+        }
+    }
+    
+    private void clearFeeds() {
+        clear(CacheConfig.COMIC_PAGE_BYTES);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+    
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.exception.CustomException;
+import com.trendfeed.backend.exception.ErrorCode;
+import com.trendfeed.backend.repository.ComicRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 좋아요/공유/저장 카운터 write-behind 버퍼
+ *  - 증가는 코믹별 LongAdder 만 건드림 (DB 왕복 없음)
+ *  - 전용 스레드에서 주기적으로 상대 갱신(likes + ?) JDBC 배치 flush, 종료 시 남은 것 flush
+ *  - 같은 flush 에서 hot_score 갱신 (V12): hot_score = log2(Σ weight · 2^(이벤트 시각 / 반감기))
+ *    → 정렬 순서가 감쇠 점수와 같아 기존 행 재계산 불필요, 새 이벤트는 log-sum-exp 로 더함
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComicCounterService {
+    
+    // V12 의 hot_score 기준과 같아야 함 (2024-01-01 기준, 반감기 24시간)
+    private static final long HOT_EPOCH_SECONDS = 1704067200L;
+    private static final double HOT_HALF_LIFE_SECONDS = 86400.0;
+    
+    private static final String FLUSH_SQL = """
+            UPDATE comics c
+            SET likes = c.likes + ?,
+                shares = c.shares + ?,
+                hot_score = CASE WHEN e.s IS NULL THEN c.hot_score
+                                 ELSE GREATEST(c.hot_score, e.s)
+                                    + LN(1 + POWER(2, GREATEST(-ABS(c.hot_score - e.s), -1000))) / LN(2)
+                            END,
+                updated_at = now()
+            FROM (
+                SELECT CASE WHEN CAST(? AS double precision) > 0
+                            THEN (EXTRACT(EPOCH FROM LOCALTIMESTAMP) - %d) / %s + LN(CAST(? AS double precision)) / LN(2)
+                       END AS s
+            ) e
+            WHERE c.id = ?
+            """.formatted(HOT_EPOCH_SECONDS, HOT_HALF_LIFE_SECONDS);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ComicRepository comicRepository;
+    private final ComicCacheService comicCacheService;
+    
+    // flush 후에도 항목 유지 (sumThenReset) → 제거된 adder 에 증가가 유실되지 않음
+    private final Map<Long, Counters> pending = new ConcurrentHashMap<>();
+    
+    private final ThreadPoolTaskScheduler flushScheduler = new ThreadPoolTaskScheduler();
+    
+    @Value("${comics.counters.flush-interval-ms:250}")
+    private long flushIntervalMs;
+    
+    // hot_score 가중치 (새 이벤트에만 적용)
+    @Value("${comics.hot.weight.like:1}")
+    private double likeWeight;
+    
+    @Value("${comics.hot.weight.share:2}")
+    private double shareWeight;
+    
+    @Value("${comics.hot.weight.save:3}")
+    private double saveWeight;
+    
+    public void addLike(Long comicId) {
+        counters(comicId).likes.increment();
+    }
+    
+    public void removeLike(Long comicId) {
+        counters(comicId).likes.decrement();
+    }
+    
+    public void addShare(Long comicId) {
+        counters(comicId).shares.increment();
+    }
+    
+    // 저장은 카운터 컬럼 없이 hot_score 에만 반영
+    public void addSave(Long comicId) {
+        counters(comicId).saves.increment();
+    }
+    
+    @PostConstruct
+    public void startFlushing() {
+        flushScheduler.setPoolSize(1);
+        flushScheduler.setThreadNamePrefix("comic-counter-flush-");
+        flushScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        flushScheduler.setAwaitTerminationSeconds(5);
+        flushScheduler.initialize();
+        // 예외는 스케줄러 기본 핸들러가 로그, 다음 주기는 그대로 실행
+        flushScheduler.scheduleWithFixedDelay(this::flush, Duration.ofMillis(flushIntervalMs));
+    }
+    
+    public void flush() {
+        List<Delta> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, deltas, deltas.size(), (ps, delta) -> {
+                double weight = hotWeight(delta);
+                ps.setLong(1, delta.likes());
+                ps.setLong(2, delta.shares());
+                ps.setDouble(3, weight);
+                ps.setDouble(4, weight);
+                ps.setLong(5, delta.comicId());
+            });
+            comicCacheService.evictCounters(deltas.stream().map(Delta::comicId).toList());
+        } catch (Exception e) {
+            // 다음 flush 에서 재시도하도록 되돌림
+            log.warn("Failed to flush {} comic counter deltas, will retry", deltas.size(), e);
+            for (Delta delta : deltas) {
+                Counters counters = counters(delta.comicId());
+                counters.likes.add(delta.likes());
+                counters.shares.add(delta.shares());
+                counters.saves.add(delta.saves());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushScheduler.shutdown();
+        flush();
+    }
+    
+    private Counters counters(Long comicId) {
+        Counters counters = pending.get(comicId);
+        if (counters != null) {
+            return counters;
+        }
+        // computeIfAbsent 안에서 DB 를 호출하면 맵 bin 락을 잡은 채 대기 → 밖에서 먼저 확인
+        // (모르는 id 는 폴링으로 확인한 최대 id 보다 큰 경우뿐)
+        if (!comicCacheService.isKnownComicId(comicId) && !comicRepository.existsById(comicId)) {
+            throw new CustomException(ErrorCode.COMIC_NOT_FOUND);
+        }
+        return pending.computeIfAbsent(comicId, id -> new Counters());
+    }
+    
+    private List<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        pending.forEach((comicId, counters) -> {
+            long likes = counters.likes.sumThenReset();
+            long shares = counters.shares.sumThenReset();
+            long saves = counters.saves.sumThenReset();
+            if (likes != 0 || shares != 0 || saves != 0) {
+                deltas.add(new Delta(comicId, likes, shares, saves));
+            }
+        });
+        return deltas;
+    }
+    
+    // 한 주기 내 순 좋아요 취소는 0 (기존 좋아요는 그대로 감쇠)
+    private double hotWeight(Delta delta) {
+        return Math.max(delta.likes(), 0) * likeWeight
+                + delta.shares() * shareWeight
+                + delta.saves() * saveWeight;
+    }
+    
+    private static final class Counters {
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder shares = new LongAdder();
+        private final LongAdder saves = new LongAdder();
+    }
+    
+    private record Delta(Long comicId, long likes, long shares, long saves) {}
+}
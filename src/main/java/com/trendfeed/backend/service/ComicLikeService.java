@@ -0,0 +1,152 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.config.CacheConfig;
+import com.trendfeed.backend.exception.CustomException;
+import com.trendfeed.backend.exception.ErrorCode;
+import com.trendfeed.backend.repository.ComicLikeRepository;
+import com.trendfeed.backend.repository.ComicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+ * 사용자별 코믹 좋아요
+ *  - comic_likes 에 (user, comic) 한 행, 좋아요/취소는 멱등
+ *  - 실제로 행이 추가/삭제됐을 때만 comics.likes ±1 (ComicCounterService)
+ *  - 좋아요 목록은 사용자별 정렬 long[] 하나로 캐시 → 카드마다 쿼리 대신 이진 탐색
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComicLikeService {
+    
+    private static final long[] EMPTY = new long[0];
+    
+    private final ComicLikeRepository comicLikeRepository;
+    private final ComicRepository comicRepository;
+    private final ComicCounterService comicCounterService;
+    private final ComicCacheService comicCacheService;
+    private final CacheManager cacheManager;
+    private final UserCacheService userCacheService;
+    
+    /*
+     * @return 새로 추가됐으면 true, 이미 좋아요 상태면 false
+     */
+    public boolean like(String uid, Long comicId) {
+        requireComic(comicId);
+        
+        int inserted;
+        try {
+            inserted = comicLikeRepository.insertIfAbsent(uid, comicId);
+        } catch (DataIntegrityViolationException e) {
+            // FK 위반: 사용자 행 없음 (코믹은 위에서 확인)
+            throw new CustomException(ErrorCode.USER_NOT_FOUND);
+        }
+        
+        if (inserted > 0) {
+            comicCounterService.addLike(comicId);
+            updateMembership(uid, comicId, true);
+            userCacheService.evictProfile(uid);
+        }
+        return inserted > 0;
+    }
+    
+    /*
+     * @return 삭제됐으면 true, 좋아요가 없었으면 false
+     */
+    public boolean unlike(String uid, Long comicId) {
+        int deleted = comicLikeRepository.deleteByUserUidAndComicId(uid, comicId);
+        if (deleted > 0) {
+            comicCounterService.removeLike(comicId);
+            updateMembership(uid, comicId, false);
+            userCacheService.evictProfile(uid);
+        }
+        return deleted > 0;
+    }
+    
+    public boolean hasLiked(String uid, Long comicId) {
+        return Arrays.binarySearch(likedComicIds(uid), comicId) >= 0;
+    }
+    
+    /*
+     * comicIds 중 사용자가 좋아요한 것 (캐시 배열 하나로 판별)
+     */
+    public Set<Long> likedAmong(String uid, Collection<Long> comicIds) {
+        long[] liked = likedComicIds(uid);
+        Set<Long> result = new HashSet<>();
+        for (Long comicId : comicIds) {
+            if (comicId != null && Arrays.binarySearch(liked, comicId) >= 0) {
+                result.add(comicId);
+            }
+        }
+        return result;
+    }
+    
+    public long countLikes(String uid) {
+        return likedComicIds(uid).length;
+    }
+    
+    /*
+     * 캐시된 좋아요 배열 (miss 는 Caffeine 키 단위 compute 안에서 로드 → 동시 좋아요/취소는 로드 후 반영)
+     */
+    private long[] likedComicIds(String uid) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_LIKES);
+        if (cache == null) {
+            return loadLikedComicIds(uid);
+        }
+        return cache.get(uid, () -> loadLikedComicIds(uid));
+    }
+    
+    private long[] loadLikedComicIds(String uid) {
+        return comicLikeRepository.findComicIdsByUserUid(uid).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+    }
+    
+    /*
+     * 캐시된 배열을 사용자 단위로 원자적 copy-on-write 갱신 (캐시에 없으면 다음 조회 때 로드)
+     */
+    @SuppressWarnings("unchecked")
+    private void updateMembership(String uid, Long comicId, boolean liked) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_LIKES);
+        if (cache == null) {
+            return;
+        }
+        
+        var entries = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache()).asMap();
+        entries.computeIfPresent(uid, (key, value) -> {
+            long[] current = (long[]) value;
+            int index = Arrays.binarySearch(current, comicId);
+            if (liked && index < 0) {
+                int insertAt = -index - 1;
+                long[] updated = new long[current.length + 1];
+                System.arraycopy(current, 0, updated, 0, insertAt);
+                updated[insertAt] = comicId;
+                System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+                return updated;
+            }
+            if (!liked && index >= 0) {
+                long[] updated = (current.length == 1) ? EMPTY : new long[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+                return updated;
+            }
+            return current;
+        });
+    }
+    
+    private void requireComic(Long comicId) {
+        if (!comicCacheService.isKnownComicId(comicId) && !comicRepository.existsById(comicId)) {
+            throw new CustomException(ErrorCode.COMIC_NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.trendfeed.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trendfeed.backend.config.CacheConfig;
+import com.trendfeed.backend.dto.response.ApiResponse;
+import com.trendfeed.backend.dto.response.ComicResponse;
+import com.trendfeed.backend.dto.response.PaginatedResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+/**
+ * Pre-serialized ApiResponse JSON bodies for the hottest comic reads.
+ * - Comic detail: keyed by id, entry carries the row's updatedAt (evicted by ComicCacheService on change)
+ * - Feed pages requested without a cursor: keyed by FeedKey (the only place feed cache keys are built)
+ * Hits skip entity mapping and Jackson entirely; the controller writes the bytes as-is.
+ * Each entry carries its ETag so conditional GETs on cached entries are answered without the DB.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComicResponseCache {
+    
+    private final ComicService comicService;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    
+    public SerializedResponse getComicDetail(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.COMIC_DETAIL);
+        SerializedResponse cached = (cache != null) ? cache.get(id, SerializedResponse.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+        
+        ComicResponse comic = comicService.getComicById(id);
+        byte[] json = serialize(ApiResponse.success(comic));
+        String etag = (comic.getUpdatedAt() != null)
+                ? "W/\"comic-" + id + "-" + toEpochMillis(comic.getUpdatedAt()) + "\""
+                : digestEtag(json);
+        SerializedResponse serialized = new SerializedResponse(json, comic.getUpdatedAt(), etag);
+        if (cache != null) {
+            cache.put(id, serialized);
+        }
+        return serialized;
+    }
+    
+    /**
+     * Feed page body. Offset pages (no cursor) are kept as bytes; cursor pages always hit the loader.
+     */
+    public SerializedResponse getFeedPage(FeedKey key, String cursor,
+                                          Supplier<PaginatedResponse<ComicResponse>> loader) {
+        Cache cache = (cursor == null) ? cacheManager.getCache(CacheConfig.COMIC_PAGE_BYTES) : null;
+        SerializedResponse cached = (cache != null) ? cache.get(key, SerializedResponse.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+        
+        byte[] json = serialize(ApiResponse.success(loader.get()));
+        SerializedResponse serialized = new SerializedResponse(json, null, digestEtag(json));
+        if (cache != null) {
+            cache.put(key, serialized);
+        }
+        return serialized;
+    }
+    
+    /**
+     * Feed ETag: digest of the body, so every instance produces the same tag for the same content.
+     */
+    private static String digestEtag(byte[] json) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+    
+    public static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize comic response", e);
+        }
+    }
+    
+    /**
+     * Normalized feed request: sortBy folded to the sort it resolves to and limit clamped,
+     * so equivalent requests share one entry and the key space stays bounded.
+     */
+    public record FeedKey(String feed, String variant, int page, int limit, Boolean includeTotal) {
+        
+        public static FeedKey all(String sortBy, int page, int limit, Boolean includeTotal) {
+            return new FeedKey("all", ComicService.sortKey(sortBy), page, ComicService.clampLimit(limit), includeTotal);
+        }
+        
+        public static FeedKey newComics(int page, int limit, Boolean includeTotal) {
+            return new FeedKey("new", null, page, ComicService.clampLimit(limit), includeTotal);
+        }
+        
+        public static FeedKey language(String language, int page, int limit, Boolean includeTotal) {
+            return new FeedKey("lang", language, page, ComicService.clampLimit(limit), includeTotal);
+        }
+    }
+    
+    /**
+     * UTF-8 JSON body + validators (updatedAt only for detail entries).
+     */
+    public record SerializedResponse(byte[] json, LocalDateTime updatedAt, String etag) {}
+}
@@ -0,0 +1,280 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.exception.CustomException;
+import com.trendfeed.backend.exception.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over comics backed by comic_search_documents (tsvector + GIN).
+ * - Documents combine repo_name, key_insights and the linked repository's description/README
+ * - Writes mark documents dirty; a scheduled refresh hashes only those and re-indexes the ones whose content changed
+ * - Facet counts (language, star bucket) are computed over the same match set, each ignoring its own filter
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComicSearchService {
+    
+    private static final String TEXT_CONFIG = "simple";
+    
+    private static final int MAX_QUERY_LENGTH = 200;
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private static final int MAX_REFRESH_ROUNDS = 20;
+    
+    // Fingerprint of everything the document is built from; counters and README re-checks don't change it
+    private static final String SOURCE_HASH = """
+            md5(concat_ws(chr(31), c.repo_name, c.key_insights::text, g.description,
+                          COALESCE(g.readme_sha, md5(g.readme_text))))""";
+    
+    // Only rows marked dirty on write (V17 trigger on comics, markRepositoriesDirty for git_repositories) are hashed;
+    // an unchanged hash just clears the flag. A dirty mark racing this batch waits on the row lock and lands afterwards
+    private static final String REFRESH_SQL = """
+            WITH candidates AS (
+                SELECT d.comic_id
+                FROM comic_search_documents d
+                WHERE d.dirty
+                ORDER BY d.comic_id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ),
+            hashed AS (
+                SELECT c.id, %2$s AS source_hash
+                FROM candidates k
+                JOIN comics c ON c.id = k.comic_id
+                LEFT JOIN git_repositories g ON g.full_name = c.repo_name
+            ),
+            unchanged AS (
+                UPDATE comic_search_documents d
+                SET dirty = false
+                FROM hashed h
+                WHERE d.comic_id = h.id
+                  AND d.source_hash IS NOT DISTINCT FROM h.source_hash
+            ),
+            rebuilt AS (
+                UPDATE comic_search_documents d
+                SET document =
+                       setweight(to_tsvector('%1$s', c.repo_name || ' ' || translate(c.repo_name, '/-_.', '    ')), 'A')
+                    || setweight(COALESCE(jsonb_to_tsvector('%1$s', c.key_insights, '["string"]'), ''::tsvector), 'B')
+                    || setweight(to_tsvector('%1$s', COALESCE(g.description, '')), 'C')
+                    || setweight(to_tsvector('%1$s', LEFT(COALESCE(g.readme_text, ''), ?)), 'D'),
+                    indexed_at = now(),
+                    source_hash = h.source_hash,
+                    dirty = false
+                FROM hashed h
+                JOIN comics c ON c.id = h.id
+                LEFT JOIN git_repositories g ON g.full_name = c.repo_name
+                WHERE d.comic_id = h.id
+                  AND d.source_hash IS DISTINCT FROM h.source_hash
+                RETURNING d.comic_id
+            )
+            SELECT (SELECT COUNT(*) FROM candidates) AS checked,
+                   (SELECT COUNT(*) FROM rebuilt) AS rebuilt
+            """.formatted(TEXT_CONFIG, SOURCE_HASH);
+    
+    private static final String MARK_REPOSITORIES_DIRTY_SQL = """
+            UPDATE comic_search_documents d
+            SET dirty = true
+            FROM comics c
+            WHERE c.id = d.comic_id
+              AND c.repo_name = ANY (?)
+              AND NOT d.dirty
+            """;
+    
+    private static final String MATCH_SQL = """
+            WITH q AS (SELECT websearch_to_tsquery('%s', ?) AS query)
+            SELECT c.id, c.language, COALESCE(c.stars, 0) AS stars, ts_rank_cd(d.document, q.query) AS rank
+            FROM comic_search_documents d
+            CROSS JOIN q
+            JOIN comics c ON c.id = d.comic_id
+            WHERE d.document @@ q.query
+            """.formatted(TEXT_CONFIG);
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${comics.search.refresh-batch-size:500}")
+    private int refreshBatchSize;
+    
+    @Value("${comics.search.readme-max-chars:20000}")
+    private int readmeMaxChars;
+    
+    /**
+     * Ranked comic ids for one page plus facet counts.
+     */
+    public SearchHits search(String query, String language, String starBucket, int page, int limit) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new CustomException(ErrorCode.INVALID_REQUEST,
+                    "Search query must be 1-" + MAX_QUERY_LENGTH + " characters");
+        }
+        if (page < 1 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new CustomException(ErrorCode.INVALID_REQUEST,
+                    "page must be >= 1 and limit between 1 and " + MAX_PAGE_SIZE);
+        }
+        StarBucket bucket = StarBucket.from(starBucket);
+        
+        // Hits: both filters applied
+        List<Object> hitArgs = new ArrayList<>(List.of(query));
+        String hitFilter = filter(language, bucket, hitArgs);
+        hitArgs.add(limit);
+        hitArgs.add((long) (page - 1) * limit);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM (" + MATCH_SQL + ") m" + hitFilter + " ORDER BY rank DESC, id DESC LIMIT ? OFFSET ?",
+                Long.class, hitArgs.toArray());
+        
+        // Facets: language counts under the star filter, star counts under the language filter
+        List<Object> facetArgs = new ArrayList<>(List.of(query));
+        String languageFacetFilter = filter(null, bucket, facetArgs);
+        String starFacetFilter = filter(language, null, facetArgs);
+        String facetSql = "WITH m AS (" + MATCH_SQL + ")"
+                + " SELECT 'language' AS facet, language AS value, COUNT(*) AS cnt FROM m" + languageFacetFilter
+                + " GROUP BY language"
+                + " UNION ALL"
+                + " SELECT 'stars', " + StarBucket.caseExpression() + ", COUNT(*) FROM m" + starFacetFilter
+                + " GROUP BY 2";
+        
+        Map<String, Long> languages = new LinkedHashMap<>();
+        Map<String, Long> stars = new LinkedHashMap<>();
+        Arrays.stream(StarBucket.values()).forEach(b -> stars.put(b.key, 0L));
+        long[] total = {0};
+        
+        jdbcTemplate.query(facetSql, rs -> {
+            String value = rs.getString("value");
+            long count = rs.getLong("cnt");
+            if ("stars".equals(rs.getString("facet"))) {
+                stars.put(value, count);
+                return;
+            }
+            if (language == null || language.equals(value)) {
+                total[0] += count;
+            }
+            if (value != null) {
+                languages.put(value, count);
+            }
+        }, facetArgs.toArray());
+        
+        Map<String, Long> sortedLanguages = languages.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        
+        return new SearchHits(ids, total[0], sortedLanguages, stars);
+    }
+    
+    /**
+     * Incrementally (re)build search documents in batches until nothing is stale.
+     */
+    @Scheduled(fixedDelayString = "${comics.search.refresh-interval-ms:30000}",
+            initialDelayString = "${comics.search.refresh-initial-delay-ms:10000}")
+    public void refreshDocuments() {
+        int indexed = 0;
+        try {
+            for (int round = 0; round < MAX_REFRESH_ROUNDS; round++) {
+                long[] counts = jdbcTemplate.queryForObject(REFRESH_SQL,
+                        (rs, rowNum) -> new long[]{rs.getLong("checked"), rs.getLong("rebuilt")},
+                        refreshBatchSize, readmeMaxChars);
+                indexed += (int) counts[1];
+                if (counts[0] < refreshBatchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // git_repositories may not exist yet on a fresh database (created by Hibernate)
+            log.warn("Failed to refresh comic search documents", e);
+        }
+        if (indexed > 0) {
+            log.info("Indexed {} comic search documents", indexed);
+        }
+    }
+    
+    /**
+     * Marks the documents of comics built from these repositories for re-checking
+     * (git_repositories is created by Hibernate, so there is no trigger on it).
+     */
+    public void markRepositoriesDirty(Collection<String> fullNames) {
+        if (fullNames.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(MARK_REPOSITORIES_DIRTY_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", fullNames.toArray())));
+    }
+    
+    private static String filter(String language, StarBucket bucket, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (language != null) {
+            conditions.add("language = ?");
+            args.add(language);
+        }
+        if (bucket != null) {
+            conditions.add("stars >= ?");
+            args.add(bucket.min);
+            if (bucket.max != null) {
+                conditions.add("stars < ?");
+                args.add(bucket.max);
+            }
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+    
+    /**
+     * Ranked page of comic ids, the filtered match count and facet counts.
+     */
+    public record SearchHits(
+            List<Long> comicIds,
+            long total,
+            Map<String, Long> languageFacets,
+            Map<String, Long> starFacets
+    ) {}
+    
+    private enum StarBucket {
+        UNDER_100("lt100", 0, 100),
+        UNDER_1K("100-1k", 100, 1_000),
+        UNDER_10K("1k-10k", 1_000, 10_000),
+        OVER_10K("10k+", 10_000, null);
+        
+        private final String key;
+        private final int min;
+        private final Integer max;
+        
+        StarBucket(String key, int min, Integer max) {
+            this.key = key;
+            this.min = min;
+            this.max = max;
+        }
+        
+        static StarBucket from(String key) {
+            if (key == null || key.isBlank()) {
+                return null;
+            }
+            return Arrays.stream(values())
+                    .filter(b -> b.key.equalsIgnoreCase(key))
+                    .findFirst()
+                    .orElseThrow(() -> new CustomException(ErrorCode.INVALID_REQUEST,
+                            "Unknown star bucket: " + key));
+        }
+        
+        static String caseExpression() {
+            StringBuilder sql = new StringBuilder("CASE");
+            for (StarBucket b : values()) {
+                if (b.max != null) {
+                    sql.append(" WHEN stars < ").append(b.max).append(" THEN '").append(b.key).append("'");
+                } else {
+                    sql.append(" ELSE '").append(b.key).append("'");
+                }
+            }
+            return sql.append(" END").toString();
+        }
+    }
+}
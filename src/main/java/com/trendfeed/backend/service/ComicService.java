@@ -1,21 +1,35 @@
 package com.trendfeed.backend.service;
 
 import com.trendfeed.backend.dto.response.ComicResponse;
+import com.trendfeed.backend.dto.response.ComicSearchResponse;
 import com.trendfeed.backend.dto.response.PaginatedResponse;
 import com.trendfeed.backend.entity.Comic;
 import com.trendfeed.backend.exception.CustomException;
 import com.trendfeed.backend.exception.ErrorCode;
 import com.trendfeed.backend.repository.ComicRepository;
+import com.trendfeed.backend.repository.ComicRepository.ComicSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,32 +37,34 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ComicService {
     
+    public static final int MAX_PAGE_SIZE = 100;
+    
     private final ComicRepository comicRepository;
+    private final ComicCounterService comicCounterService;
+    private final ComicSearchService comicSearchService;
     
+    /**
+     * Top comics with full panel / insight data (newsletter digest).
+     */
     @Transactional(readOnly = true)
-    public PaginatedResponse<ComicResponse> getAllComics(int page, int limit, String sortBy) {
-        Sort sort = getSortOption(sortBy);
-        Pageable pageable = PageRequest.of(page - 1, limit, sort);
-        
-        Page<Comic> comicsPage = comicRepository.findAll(pageable);
-        
-        List<ComicResponse> comics = comicsPage.getContent().stream()
+    public List<ComicResponse> getTopComics(int limit, String sortBy) {
+        return comicRepository.findAll(PageRequest.of(0, limit, FeedSort.from(sortBy).sort())).stream()
                 .map(this::mapToComicResponse)
                 .collect(Collectors.toList());
-        
-        PaginatedResponse.PaginationInfo pagination = PaginatedResponse.PaginationInfo.builder()
-                .currentPage(page)
-                .totalPages(comicsPage.getTotalPages())
-                .totalItems(comicsPage.getTotalElements())
-                .itemsPerPage(limit)
-                .build();
-        
-        return PaginatedResponse.<ComicResponse>builder()
-                .data(comics)
-                .pagination(pagination)
-                .build();
     }
     
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ComicResponse> getAllComics(int page, int limit, String sortBy,
+                                                         String cursor, Boolean includeTotal) {
+        FeedSort sort = FeedSort.from(sortBy);
+        int size = clampLimit(limit);
+        return getFeed(sort, page, size, cursor, includeTotal,
+                position -> comicRepository.findAllBy(position, sort.sort(), Limit.of(size)),
+                comicRepository::findAllBy,
+                comicRepository::count);
+    }
+    
+    // Cached as serialized bytes by ComicResponseCache
     @Transactional(readOnly = true)
     public ComicResponse getComicById(Long id) {
         Comic comic = comicRepository.findById(id)
@@ -58,74 +74,236 @@ public class ComicService {
     }
     
     @Transactional(readOnly = true)
-    public PaginatedResponse<ComicResponse> getNewComics(int page, int limit) {
-        Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Comic> comicsPage = comicRepository.findByIsNewTrue(pageable);
+    public PaginatedResponse<ComicResponse> getNewComics(int page, int limit, String cursor, Boolean includeTotal) {
+        FeedSort sort = FeedSort.LATEST;
+        int size = clampLimit(limit);
+        return getFeed(sort, page, size, cursor, includeTotal,
+                position -> comicRepository.findByIsNewTrue(position, sort.sort(), Limit.of(size)),
+                comicRepository::findByIsNewTrue,
+                comicRepository::countByIsNewTrue);
+    }
+    
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ComicResponse> getComicsByLanguage(String language, int page, int limit,
+                                                                String cursor, Boolean includeTotal) {
+        FeedSort sort = FeedSort.STARS;
+        int size = clampLimit(limit);
+        return getFeed(sort, page, size, cursor, includeTotal,
+                position -> comicRepository.findByLanguage(language, position, sort.sort(), Limit.of(size)),
+                pageable -> comicRepository.findByLanguage(language, pageable),
+                () -> comicRepository.countByLanguage(language));
+    }
+    
+    /**
+     * Feed pagination (list items are ComicSummary projections, no panels).
+     * - cursor given, or first page: keyset scroll over (sort key, id), no OFFSET
+     * - page > 1 without cursor: legacy OFFSET paging (kept for existing clients)
+     * - total count runs only when requested (defaults to on for page requests, off for cursor requests)
+     */
+    private PaginatedResponse<ComicResponse> getFeed(FeedSort sort, int page, int limit,
+                                                     String cursor, Boolean includeTotal,
+                                                     Function<ScrollPosition, Window<ComicSummary>> scrollQuery,
+                                                     Function<Pageable, Page<ComicSummary>> pageQuery,
+                                                     LongSupplier countQuery) {
+        if (cursor == null && page > 1) {
+            Page<ComicSummary> comicsPage = pageQuery.apply(PageRequest.of(page - 1, limit, sort.sort()));
+            
+            PaginatedResponse.PaginationInfo pagination = PaginatedResponse.PaginationInfo.builder()
+                    .currentPage(page)
+                    .totalPages(comicsPage.getTotalPages())
+                    .totalItems(comicsPage.getTotalElements())
+                    .itemsPerPage(limit)
+                    .hasNext(comicsPage.hasNext())
+                    .build();
+            
+            return PaginatedResponse.<ComicResponse>builder()
+                    .data(comicsPage.getContent().stream().map(this::mapToSummaryResponse).collect(Collectors.toList()))
+                    .pagination(pagination)
+                    .build();
+        }
         
-        List<ComicResponse> comics = comicsPage.getContent().stream()
-                .map(this::mapToComicResponse)
+        Window<ComicSummary> window = scrollQuery.apply(decodeCursor(sort, cursor));
+        
+        List<ComicResponse> comics = window.getContent().stream()
+                .map(this::mapToSummaryResponse)
                 .collect(Collectors.toList());
         
-        PaginatedResponse.PaginationInfo pagination = PaginatedResponse.PaginationInfo.builder()
-                .currentPage(page)
-                .totalPages(comicsPage.getTotalPages())
-                .totalItems(comicsPage.getTotalElements())
+        String nextCursor = (window.hasNext() && !window.isEmpty())
+                ? encodeCursor(sort, window.getContent().get(window.size() - 1))
+                : null;
+        
+        PaginatedResponse.PaginationInfo.PaginationInfoBuilder pagination = PaginatedResponse.PaginationInfo.builder()
+                .currentPage(cursor == null ? 1 : null)
                 .itemsPerPage(limit)
-                .build();
+                .nextCursor(nextCursor)
+                .hasNext(window.hasNext());
+        
+        boolean withTotal = (includeTotal != null) ? includeTotal : cursor == null;
+        if (withTotal) {
+            long total = countQuery.getAsLong();
+            pagination.totalItems(total)
+                    .totalPages((int) ((total + limit - 1) / limit));
+        }
         
         return PaginatedResponse.<ComicResponse>builder()
                 .data(comics)
-                .pagination(pagination)
+                .pagination(pagination.build())
                 .build();
     }
     
+    /**
+     * Buffered - persisted by ComicCounterService's periodic flush.
+     */
+    public void incrementShares(Long comicId) {
+        comicCounterService.addShare(comicId);
+    }
+    
+    /**
+     * Full-text search over repo name, key insights and the repository description/README.
+     */
     @Transactional(readOnly = true)
-    public PaginatedResponse<ComicResponse> getComicsByLanguage(String language, int page, int limit) {
-        Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.DESC, "stars"));
-        Page<Comic> comicsPage = comicRepository.findByLanguage(language, pageable);
+    public ComicSearchResponse searchComics(String query, String language, String starBucket, int page, int limit) {
+        ComicSearchService.SearchHits hits = comicSearchService.search(query, language, starBucket, page, limit);
         
-        List<ComicResponse> comics = comicsPage.getContent().stream()
-                .map(this::mapToComicResponse)
+        // Keep the relevance order of the hit ids
+        Map<Long, ComicSummary> byId = comicRepository.findByIdIn(hits.comicIds()).stream()
+                .collect(Collectors.toMap(ComicSummary::getId, Function.identity()));
+        List<ComicResponse> comics = hits.comicIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToSummaryResponse)
                 .collect(Collectors.toList());
         
         PaginatedResponse.PaginationInfo pagination = PaginatedResponse.PaginationInfo.builder()
                 .currentPage(page)
-                .totalPages(comicsPage.getTotalPages())
-                .totalItems(comicsPage.getTotalElements())
+                .totalPages((int) ((hits.total() + limit - 1) / limit))
+                .totalItems(hits.total())
                 .itemsPerPage(limit)
+                .hasNext((long) page * limit < hits.total())
                 .build();
         
-        return PaginatedResponse.<ComicResponse>builder()
+        return ComicSearchResponse.builder()
                 .data(comics)
                 .pagination(pagination)
+                .facets(ComicSearchResponse.Facets.builder()
+                        .language(hits.languageFacets())
+                        .stars(hits.starFacets())
+                        .build())
                 .build();
     }
     
-    @Transactional
-    public void incrementLikes(Long comicId) {
-        Comic comic = comicRepository.findById(comicId)
-                .orElseThrow(() -> new CustomException(ErrorCode.COMIC_NOT_FOUND));
+    /**
+     * Cache-key form of sortBy: unknown values share the key of the sort they fall back to.
+     */
+    public static String sortKey(String sortBy) {
+        return FeedSort.from(sortBy).name();
+    }
+    
+    /**
+     * Page size bounded to 1..MAX_PAGE_SIZE (also bounds the number of distinct cache keys).
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    /**
+     * Opaque cursor: base64url("sort|key|id") of the last row on the page.
+     */
+    private String encodeCursor(FeedSort sort, ComicSummary last) {
+        String raw = sort.name() + "|" + sort.keyOf(last) + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private ScrollPosition decodeCursor(FeedSort sort, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
         
-        comic.setLikes(comic.getLikes() + 1);
-        comicRepository.save(comic);
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !sort.name().equals(parts[0])) {
+                throw new CustomException(ErrorCode.INVALID_REQUEST);
+            }
+            
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sort.property(), sort.parseKey(parts[1]));
+            keys.put("id", Long.parseLong(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CustomException(ErrorCode.INVALID_REQUEST);
+        }
     }
     
-    @Transactional
-    public void incrementShares(Long comicId) {
-        Comic comic = comicRepository.findById(comicId)
-                .orElseThrow(() -> new CustomException(ErrorCode.COMIC_NOT_FOUND));
+    /**
+     * Feed orderings. id is always the tie-breaker so the keyset is unique.
+     */
+    private enum FeedSort {
+        LATEST("createdAt"),
+        STARS("stars"),
+        LIKES("likes"),
+        HOT("hotScore");
+        
+        private final String property;
+        
+        FeedSort(String property) {
+            this.property = property;
+        }
+        
+        static FeedSort from(String sortBy) {
+            if (sortBy == null) {
+                return LATEST;
+            }
+            return switch (sortBy) {
+                case "stars" -> STARS;
+                case "likes" -> LIKES;
+                case "hot" -> HOT;
+                default -> LATEST;
+            };
+        }
         
-        comic.setShares(comic.getShares() + 1);
-        comicRepository.save(comic);
+        String property() {
+            return property;
+        }
+        
+        Sort sort() {
+            return Sort.by(Sort.Direction.DESC, property, "id");
+        }
+        
+        String keyOf(ComicSummary comic) {
+            return switch (this) {
+                case LATEST -> comic.getCreatedAt().toString();
+                case STARS -> String.valueOf(comic.getStars());
+                case LIKES -> String.valueOf(comic.getLikes());
+                case HOT -> String.valueOf(comic.getHotScore());
+            };
+        }
+        
+        Object parseKey(String value) {
+            return switch (this) {
+                case LATEST -> LocalDateTime.parse(value);
+                case STARS, LIKES -> Integer.parseInt(value);
+                case HOT -> Double.parseDouble(value);
+            };
+        }
     }
     
-    private Sort getSortOption(String sortBy) {
-        return switch (sortBy) {
-            case "stars" -> Sort.by(Sort.Direction.DESC, "stars");
-            case "likes" -> Sort.by(Sort.Direction.DESC, "likes");
-            case "latest" -> Sort.by(Sort.Direction.DESC, "createdAt");
-            default -> Sort.by(Sort.Direction.DESC, "createdAt");
-        };
+    /**
+     * List card - no panels / keyInsights (omitted from JSON).
+     */
+    private ComicResponse mapToSummaryResponse(ComicSummary comic) {
+        return ComicResponse.builder()
+                .id(comic.getId())
+                .repoName(comic.getRepoName())
+                .repoUrl(comic.getRepoUrl())
+                .stars(comic.getStars())
+                .language(comic.getLanguage())
+                .isNew(comic.getIsNew())
+                .likes(comic.getLikes())
+                .shares(comic.getShares())
+                .comments(comic.getComments())
+                .createdAt(comic.getCreatedAt())
+                .build();
     }
     
     private ComicResponse mapToComicResponse(Comic comic) {
@@ -142,6 +320,7 @@ public class ComicService {
                 .shares(comic.getShares())
                 .comments(comic.getComments())
                 .createdAt(comic.getCreatedAt())
+                .updatedAt(comic.getUpdatedAt())
                 .build();
     }
 }
@@ -0,0 +1,274 @@
+package com.trendfeed.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * GitHub GraphQL API 로 리포 메타데이터/README 를 배치 조회.
+ *
+ * nodes(ids: [...]) 한 번으로 50~100개 리포를 가져오고,
+ * 응답을 REST(/repos/{owner}/{repo}) 와 같은 키의 Map 으로 바꿔서
+ * GitHubService.mapMetaToEntity / 트렌드 평가를 그대로 재사용한다.
+ *
+ * README 는 두 단계:
+ *  - fetchRepositories(): 메타 + README blob oid(=REST readme sha)/크기만
+ *  - fetchReadmeTexts(): oid 가 바뀐 리포만 본문(text) 조회
+ *  - fetchBatches(): 알려진 리포 목록을 배치로 나눠 위 두 단계를 진행 (배치 실패는 결과에 표시, 나머지는 계속)
+ *
+ * 모든 호출은 GitHubRateLimiter.call() 을 거친다 (구독 시점 대기 + 403/429/RATE_LIMITED 재시도).
+ * 응답 errors 처리:
+ *  - data.nodes 와 함께 온 오류(삭제된 리포 NOT_FOUND 등) → 로그만, 해당 노드는 null 이라 제외
+ *  - data 가 없는 오류(인증/쿼리 오류) → 요청 실패
+ *
+ * 엔드포인트는 github.base.url + github.graphql.path 라서 로컬 스텁 서버로 교체 가능.
+ */
+@Component
+public class GitHubGraphQlClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubGraphQlClient.class);
+
+    // README 파일명 후보 (REST /readme 와 달리 GraphQL 은 경로를 직접 지정해야 함)
+    private static final List<String> README_PATHS = List.of("README.md", "readme.md", "README.rst", "README");
+
+    private static final String REPOSITORY_FIELDS = """
+            databaseId
+            id
+            name
+            nameWithOwner
+            owner { login }
+            url
+            description
+            primaryLanguage { name }
+            stargazerCount
+            createdAt
+            pushedAt
+            updatedAt
+            """;
+
+    private final WebClient github;
+    private final GitHubRateLimiter rateLimiter;
+
+    @Value("${github.graphql.path:/graphql}")
+    private String graphqlPath;
+
+    public GitHubGraphQlClient(WebClient githubWebClient, GitHubRateLimiter rateLimiter) {
+        this.github = githubWebClient;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /*
+     * 알려진 리포를 batchSize 개씩 조회, README oid 가 바뀐(또는 처음 보는) 리포만 본문 추가 조회
+     */
+    public Flux<BatchResult> fetchBatches(List<KnownRepo> known, int batchSize, int concurrency) {
+        List<List<KnownRepo>> batches = new ArrayList<>();
+        for (int from = 0; from < known.size(); from += batchSize) {
+            batches.add(known.subList(from, Math.min(from + batchSize, known.size())));
+        }
+        return Flux.fromIterable(batches)
+                .flatMap(this::fetchBatch, concurrency);
+    }
+
+    private Mono<BatchResult> fetchBatch(List<KnownRepo> batch) {
+        Map<String, String> knownOids = new HashMap<>();
+        batch.forEach(repo -> knownOids.put(repo.nodeId(), repo.readmeOid()));
+
+        return fetchRepositories(new ArrayList<>(knownOids.keySet()))
+                .flatMap(repos -> {
+                    List<String> changed = repos.stream()
+                            .filter(repo -> repo.readme() != null)
+                            .filter(repo -> !repo.readme().oid().equals(knownOids.get(repo.nodeId())))
+                            .map(GraphQlRepository::nodeId)
+                            .toList();
+
+                    Mono<Map<String, ReadmeBlob>> texts = changed.isEmpty()
+                            ? Mono.just(Map.of())
+                            : fetchReadmeTexts(changed);
+
+                    return texts.map(textByNodeId -> new BatchResult(batch.size(), repos, textByNodeId, false));
+                })
+                .onErrorResume(ex -> {
+                    log.warn("GitHub GraphQL batch failed: size={}", batch.size(), ex);
+                    return Mono.just(new BatchResult(batch.size(), List.of(), Map.of(), true));
+                });
+    }
+
+    /*
+     * 메타 + README oid/크기 배치 조회
+     */
+    public Mono<List<GraphQlRepository>> fetchRepositories(List<String> nodeIds) {
+        String query = "query($ids: [ID!]!) { nodes(ids: $ids) { ... on Repository { "
+                + REPOSITORY_FIELDS
+                + readmeFields(false)
+                + " } } }";
+
+        return execute(query, nodeIds)
+                .map(nodes -> nodes.stream()
+                        .filter(Objects::nonNull)
+                        .filter(node -> node.get("databaseId") != null) // 삭제/권한 없음 → 빈 객체
+                        .map(node -> new GraphQlRepository(toRestMeta(node), readmeBlob(node)))
+                        .toList());
+    }
+
+    /*
+     * README 본문 배치 조회 (node id → blob)
+     */
+    public Mono<Map<String, ReadmeBlob>> fetchReadmeTexts(List<String> nodeIds) {
+        String query = "query($ids: [ID!]!) { nodes(ids: $ids) { ... on Repository { id "
+                + readmeFields(true)
+                + " } } }";
+
+        return execute(query, nodeIds)
+                .map(nodes -> {
+                    Map<String, ReadmeBlob> result = new HashMap<>();
+                    for (Map<String, Object> node : nodes) {
+                        if (node == null || node.get("id") == null) continue;
+                        ReadmeBlob blob = readmeBlob(node);
+                        if (blob != null) {
+                            result.put((String) node.get("id"), blob);
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<List<Map<String, Object>>> execute(String query, List<String> nodeIds) {
+        Map<String, Object> body = Map.of(
+                "query", query,
+                "variables", Map.of("ids", nodeIds)
+        );
+
+        // 응답 해석까지 재시도 범위에 포함 (200 + RATE_LIMITED 도 재시도)
+        return rateLimiter.call(GitHubRateLimiter.GRAPHQL, () -> github.post()
+                .uri(graphqlPath)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(response -> nodes((Map<String, Object>) response)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> nodes(Map<String, Object> response) {
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+        if (errors != null && errors.stream().anyMatch(error -> "RATE_LIMITED".equals(error.get("type")))) {
+            throw new GitHubRateLimiter.RateLimitedException("GitHub GraphQL rate limited: " + errors);
+        }
+
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        if (data == null || data.get("nodes") == null) {
+            // 인증/쿼리 오류 → 배치 실패 (빈 결과로 삼키지 않음)
+            throw new IllegalStateException("GitHub GraphQL request failed: " + errors);
+        }
+        if (errors != null) {
+            // 일부 노드 오류(삭제된 리포 NOT_FOUND 등)는 data 와 함께 온다
+            log.warn("GitHub GraphQL returned partial errors: {}", errors);
+        }
+        return (List<Map<String, Object>>) data.get("nodes");
+    }
+
+    /*
+     * README 후보 경로별 alias (readme0, readme1 ...)
+     */
+    private static String readmeFields(boolean withText) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < README_PATHS.size(); i++) {
+            sb.append(" readme").append(i)
+                    .append(": object(expression: \"HEAD:").append(README_PATHS.get(i)).append("\")")
+                    .append(" { ... on Blob { oid byteSize")
+                    .append(withText ? " text isBinary" : "")
+                    .append(" } }");
+        }
+        return sb.toString();
+    }
+
+    /*
+     * 첫 번째로 존재하는 README blob (없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    private static ReadmeBlob readmeBlob(Map<String, Object> node) {
+        for (int i = 0; i < README_PATHS.size(); i++) {
+            Map<String, Object> blob = (Map<String, Object>) node.get("readme" + i);
+            if (blob == null || blob.get("oid") == null) continue;
+
+            Number size = (Number) blob.get("byteSize");
+            boolean binary = Boolean.TRUE.equals(blob.get("isBinary"));
+            return new ReadmeBlob(
+                    (String) blob.get("oid"),
+                    size == null ? null : size.intValue(),
+                    binary ? null : (String) blob.get("text")
+            );
+        }
+        return null;
+    }
+
+    /*
+     * GraphQL Repository → REST 응답과 같은 키
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toRestMeta(Map<String, Object> node) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("id", node.get("databaseId"));
+        meta.put("node_id", node.get("id"));
+        meta.put("name", node.get("name"));
+        meta.put("full_name", node.get("nameWithOwner"));
+        meta.put("owner", node.get("owner"));
+        meta.put("html_url", node.get("url"));
+        meta.put("description", node.get("description"));
+
+        Map<String, Object> language = (Map<String, Object>) node.get("primaryLanguage");
+        meta.put("language", language != null ? language.get("name") : null);
+
+        meta.put("stargazers_count", node.get("stargazerCount"));
+        meta.put("created_at", node.get("createdAt"));
+        meta.put("pushed_at", node.get("pushedAt"));
+        meta.put("updated_at", node.get("updatedAt"));
+        return meta;
+    }
+
+    /*
+     * 리포 하나 (REST 형식 메타 + README blob, README 없으면 readme == null)
+     */
+    public record GraphQlRepository(Map<String, Object> meta, ReadmeBlob readme) {
+        public String nodeId() {
+            return (String) meta.get("node_id");
+        }
+    }
+
+    /*
+     * 재수집 대상 (저장된 README sha, 없으면 null)
+     */
+    public record KnownRepo(String nodeId, String readmeOid) {}
+
+    /*
+     * 배치 하나의 결과
+     *  - repositories: 조회된 리포 (삭제/권한 없음 노드는 빠짐 → missing())
+     *  - readmeTexts: oid 가 바뀐 리포의 README 본문 (node id 기준)
+     *  - failed: 요청 자체가 실패 (인증/쿼리 오류, 재시도 후에도 레이트리밋 등)
+     */
+    public record BatchResult(
+            int requested,
+            List<GraphQlRepository> repositories,
+            Map<String, ReadmeBlob> readmeTexts,
+            boolean failed
+    ) {
+        public int missing() {
+            return failed ? 0 : requested - repositories.size();
+        }
+    }
+
+    /*
+     * README blob (oid 는 REST readme sha 와 같은 git blob sha, text 는 본문 조회 시에만)
+     */
+    public record ReadmeBlob(String oid, Integer size, String text) {}
+}
@@ -0,0 +1,184 @@
+package com.trendfeed.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * GitHub 응답 헤더(X-RateLimit-*) 기반 레이트리밋 관리.
+ *
+ * GitHub 는 리소스별(core / search / graphql)로 별도 한도를 가지므로
+ * X-RateLimit-Resource 헤더 단위로 남은 호출 수와 리셋 시각을 기록한다.
+ *
+ * 흐름:
+ *  - 모든 GitHub 응답 → record() (GitHubConfig 의 WebClient 필터에서 호출)
+ *  - 요청 → call(resource, 호출) : 구독 시점에 acquire 후 호출, 레이트리밋 응답이면 대기 후 재시도 (REST/GraphQL 공통)
+ *  - 요청 직전 → acquire(resource)
+ *      · 남은 호출 수가 reserve 를 넘으면 바로 통과 (응답 전 요청분은 미리 차감)
+ *      · reserve 이하이면 리셋 시각까지 대기
+ *  - 2차 레이트리밋(403/429 + Retry-After) → 해당 리소스 전체를 Retry-After 만큼 정지
+ */
+@Component
+@Slf4j
+public class GitHubRateLimiter {
+
+    public static final String CORE = "core";
+    public static final String SEARCH = "search";
+    public static final String GRAPHQL = "graphql";
+
+    private static final String HEADER_REMAINING = "X-RateLimit-Remaining";
+    private static final String HEADER_RESET = "X-RateLimit-Reset";
+    private static final String HEADER_RESOURCE = "X-RateLimit-Resource";
+
+    // 리소스별 상태
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    @Value("${crawler.rate-limit.reserve:50}")   // core/graphql 에서 다른 작업(수동 수집 등)을 위해 남겨둘 호출 수
+    private int reserve;
+
+    /*
+     * 응답 헤더 기록
+     */
+    public void record(int statusCode, HttpHeaders headers) {
+        String resource = headers.getFirst(HEADER_RESOURCE);
+        String remaining = headers.getFirst(HEADER_REMAINING);
+        String reset = headers.getFirst(HEADER_RESET);
+
+        if (resource == null || remaining == null || reset == null) {
+            return;
+        }
+
+        Budget budget = budgets.computeIfAbsent(resource, r -> new Budget());
+        try {
+            budget.update(Integer.parseInt(remaining), Instant.ofEpochSecond(Long.parseLong(reset)));
+        } catch (NumberFormatException ignore) {
+            return;
+        }
+
+        // 2차 레이트리밋: Retry-After 만큼 정지
+        if (statusCode == 403 || statusCode == 429) {
+            String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (retryAfter != null) {
+                try {
+                    budget.pauseUntil(Instant.now().plusSeconds(Long.parseLong(retryAfter)));
+                    log.warn("GitHub secondary rate limit hit: resource={}, retryAfter={}s", resource, retryAfter);
+                } catch (NumberFormatException ignore) {
+                    // HTTP-date 형식은 무시 (primary reset 으로 대체)
+                }
+            }
+        }
+    }
+
+    /*
+     * 요청 허가. 필요한 만큼 지연된 뒤 완료되는 Mono
+     */
+    public Mono<Void> acquire(String resource) {
+        Duration wait = waitTime(resource);
+        if (wait.isZero()) {
+            return Mono.empty();
+        }
+        log.debug("GitHub rate limit pacing: resource={}, wait={}ms", resource, wait.toMillis());
+        return Mono.delay(wait).then();
+    }
+
+    /*
+     * 레이트리밋 대기 후 호출, 레이트리밋 응답(403/429, GraphQL RATE_LIMITED)이면 대기 후 재시도
+     *  - 대기/호출 모두 구독 시점에 (재시도마다 다시 acquire)
+     */
+    public <T> Mono<T> call(String resource, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> acquire(resource).then(Mono.defer(call)))
+                .retryWhen(Retry.max(2).filter(GitHubRateLimiter::isRateLimited));
+    }
+
+    public static boolean isRateLimited(Throwable ex) {
+        return ex instanceof WebClientResponseException.Forbidden
+                || ex instanceof WebClientResponseException.TooManyRequests
+                || ex instanceof RateLimitedException;
+    }
+
+    /*
+     * 상태 코드는 200 이지만 본문이 레이트리밋 오류인 응답 (GraphQL errors[].type == RATE_LIMITED)
+     */
+    public static class RateLimitedException extends RuntimeException {
+        public RateLimitedException(String message) {
+            super(message);
+        }
+    }
+
+    /*
+     * 남은 호출 수 (모르면 -1)
+     */
+    public int remaining(String resource) {
+        Budget budget = budgets.get(resource);
+        return budget == null ? -1 : budget.remaining();
+    }
+
+    private Duration waitTime(String resource) {
+        Budget budget = budgets.get(resource);
+        if (budget == null) {
+            // 아직 헤더를 받은 적 없음 → 첫 응답으로 상태를 채운다
+            return Duration.ZERO;
+        }
+        // search 한도(분당 30회)는 작아서 예약분 없이 전부 사용
+        int keep = SEARCH.equals(resource) ? 0 : reserve;
+        return budget.reserveSlot(keep, Instant.now());
+    }
+
+    /*
+     * 리소스 하나의 예산 상태
+     */
+    private static final class Budget {
+        private int remaining = -1;
+        private Instant resetAt = Instant.EPOCH;
+        private Instant pausedUntil = Instant.EPOCH;
+
+        synchronized void update(int remaining, Instant resetAt) {
+            // 동시 요청의 응답이 순서 없이 도착하므로 같은 윈도우에서는 더 작은 값을 신뢰
+            if (resetAt.isAfter(this.resetAt)
+                    || (resetAt.equals(this.resetAt) && remaining < this.remaining)) {
+                this.remaining = remaining;
+                this.resetAt = resetAt;
+            }
+        }
+
+        synchronized int remaining() {
+            return remaining;
+        }
+
+        synchronized void pauseUntil(Instant until) {
+            if (until.isAfter(pausedUntil)) {
+                pausedUntil = until;
+            }
+        }
+
+        synchronized Duration reserveSlot(int reserve, Instant now) {
+            if (now.isBefore(pausedUntil)) {
+                return Duration.between(now, pausedUntil);
+            }
+
+            // 윈도우가 지났으면 리셋된 것으로 간주
+            if (!now.isBefore(resetAt)) {
+                return Duration.ZERO;
+            }
+
+            // 예약분 이하 → 리셋까지 대기
+            if (remaining <= reserve) {
+                return Duration.between(now, resetAt);
+            }
+
+            // 응답이 오기 전 동시 요청분도 미리 차감
+            remaining--;
+            return Duration.ZERO;
+        }
+    }
+}
@@ -1,25 +1,49 @@
 package com.trendfeed.backend.service;
 
+import com.trendfeed.backend.entity.CrawlWatermarkEntity;
 import com.trendfeed.backend.entity.GitHubEntity;
 import com.trendfeed.backend.entity.TrendingCandidateEntity;
+import com.trendfeed.backend.repository.CrawlWatermarkRepository;
 import com.trendfeed.backend.repository.GitHubRepository;
 import com.trendfeed.backend.repository.TrendingCandidateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * GitHub에서 리포지토리 정보를 수집하고,
@@ -29,11 +53,31 @@ import java.util.Map;
  *
  * 흐름:
  *  - crawlAllAndEvaluate()  [스케줄러: 3일마다 전체 스캔]
+ *      · 검색 1,000건 상한을 넘지 않도록 created 기간/스타 구간을 조각으로 나눠 동시 검색
+ *      · 검색 결과 item 을 그대로 메타로 매핑 (리포별 /repos 재호출 없음)
+ *      · 검색 페이지 단위로 README 를 동시에(crawler.concurrency) 비동기 수집
+ *      · README 는 pushedAt 이 바뀌었거나 마지막 확인이 crawler.readme.max-age-days 보다
+ *        오래된 경우에만 ETag/Last-Modified 조건부 요청 (304 는 레이트리밋 차감 없음)
+ *      · 호출 속도는 GitHubRateLimiter 가 X-RateLimit-* 헤더를 보고 조절
+ *      · DB 반영은 crawler.persist-chunk-size 단위로 청크마다 별도 트랜잭션
+ *        (JDBC 배치, 커밋 후 영속성 컨텍스트 clear → 힙 사용량 일정, 실패 청크만 롤백)
+ *  - crawlDeltaAndEvaluate() [스케줄러: 1시간마다 증분 스캔]
+ *      · 증분 워터마크(crawl_watermarks, 마지막으로 "끝까지 성공한" 증분 수집의 시작 시각) 이후 push 된 리포만 검색
+ *      · 검색/청크 반영이 하나라도 실패하면 워터마크를 그대로 둠 → 다음 실행이 같은 구간을 다시 검색
+ *      · 트렌드 평가는 마지막 평가 후 trend.delta.min-evaluate-interval-hours 가 지난 리포만
+ *        (짧은 간격의 성장률로 승급/강등이 흔들리지 않도록 previousStars 기준 유지)
+ *  - refreshKnownRepositories() [스케줄러: 6시간마다, GraphQL 배치 재수집]
+ *      · 이미 저장된 리포를 nodeId 로 50~100개씩 묶어 메타/README oid 조회
+ *      · README 본문은 oid(sha) 가 바뀐 리포만 추가 조회
+ *      · push 없이 스타만 변한 리포(증분 검색으로 못 찾음)도 갱신
+ *  - rescoreAll()           [trend.* 변경 후 전체 재채점 + 후보 insert (수동 호출, SQL 한 문장, 반복 호출해도 결과 동일)]
  *  - upsertAndEvaluate()    [단일 리포 강제 수집용(수동 호출)]
- *  - getOldestUngivenCandidatesAndMark() [AI에게 건네줄 후보 리턴]
+ *  - getOldestUngivenCandidatesAndMark() [AI에게 건네줄 후보 리턴 (받은 즉시 완료)]
+ *  - claimCandidates() / ackCandidate() / nackCandidate() [AI 워커용 작업 큐 (lease + SKIP LOCKED)]
  *
  * 트렌드 로직 핵심:
- *   growthRate = (currStars - prevStars) / prevStars   (prevStars<=0이면 0)
+ *   growthRate = 최근 7일 스타 증가율 (repo_star_snapshots 시계열, StarHistoryService)
+ *              → 7일 이상 지난 스냅샷이 없으면 (currStars - prevStars) / prevStars   (prevStars<=0이면 0)
  *   agePenaltyFactor = 0.5^( ageDays / halfLifeDays )
  *   trendScore = growthRate * growthWeight * agePenaltyFactor * penaltyWeight
  *
@@ -46,9 +90,78 @@ import java.util.Map;
 @Service
 public class GitHubService {
 
+    private static final Logger log = LoggerFactory.getLogger(GitHubService.class);
+
+    // GitHub 검색 API 는 쿼리 하나당 최대 1,000건까지만 돌려줌
+    private static final long SEARCH_RESULT_CAP = 1000;
+
+    // 전체 재채점: 점수 계산 → stage 갱신 → 후보 insert 를 한 문장으로 (몇 번을 호출해도 결과가 같음)
+    //  - stage 는 점수로만 결정: 0 → 1 (임계값 이상), 1 → 0 (미만), 2 는 유지
+    //    (1 → 2 는 새 스타 데이터를 본 수집 평가에서만 → 재채점을 반복해도 단계가 계속 오르지 않음)
+    //  - stage 2 이면서 새 임계값도 넘는데 아직 후보가 아닌 리포는 trending_candidates 에 insert
+    private static final String RESCORE_SQL = """
+            WITH scored AS (
+                SELECT g.id,
+                       COALESCE(g.trend_stage, 0) AS old_stage,
+                       g.growth_rate
+                           * :growthWeight
+                           * CASE
+                                 WHEN g.created_at IS NULL OR :halfLifeDays <= 0 THEN 1.0
+                                 ELSE power(0.5, GREATEST(0, floor(EXTRACT(EPOCH FROM now() - g.created_at) / 86400))
+                                                 / :halfLifeDays)
+                             END
+                           * :penaltyWeight AS score
+                FROM git_repositories g
+                WHERE g.growth_rate IS NOT NULL
+            ),
+            updated AS (
+                UPDATE git_repositories g
+                SET trend_score = s.score,
+                    trend_stage = CASE
+                                      WHEN s.old_stage = 0 AND s.score >= :threshold THEN 1
+                                      WHEN s.old_stage = 1 AND s.score < :threshold THEN 0
+                                      ELSE s.old_stage
+                                  END
+                FROM scored s
+                WHERE g.id = s.id
+                RETURNING g.id, g.full_name, s.old_stage, g.trend_stage AS new_stage, s.score
+            ),
+            queued AS (
+                INSERT INTO trending_candidates (repo_id, full_name, promoted_at, given_toai, attempts)
+                SELECT u.id, u.full_name, now(), false, 0
+                FROM updated u
+                WHERE u.new_stage = 2 AND u.score >= :threshold
+                  AND NOT EXISTS (SELECT 1 FROM trending_candidates tc WHERE tc.repo_id = u.id)
+                RETURNING 1
+            )
+            SELECT count(*),
+                   count(*) FILTER (WHERE old_stage = 0 AND new_stage = 1),
+                   count(*) FILTER (WHERE old_stage = 1 AND new_stage = 0),
+                   (SELECT count(*) FROM queued)
+            FROM updated
+            """;
+
     private final WebClient github;
+    private final GitHubGraphQlClient graphQl;
+    private final GitHubRateLimiter rateLimiter;
     private final GitHubRepository repoRepo;
     private final TrendingCandidateRepository candRepo;
+    private final CrawlWatermarkRepository watermarkRepo;
+    private final StarHistoryService starHistory;
+    private final ComicSearchService comicSearch;
+    private final TransactionTemplate txTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // 전체/증분 수집이 겹치지 않도록
+    private final AtomicBoolean crawling = new AtomicBoolean(false);
+
+    // 진행 중인 수집에서 실패한 검색 호출/청크 수 (crawling 을 잡은 쪽만 리셋)
+    private final AtomicInteger crawlFailures = new AtomicInteger();
+
+    private static final String DELTA_WATERMARK = "delta";
+
+    @PersistenceContext
+    private EntityManager em;
 
     // ====== 수집(검색) 파라미터 ======
     @Value("${crawler.search.years:2}")          // 최근 N년 이내의 repo만 검색
@@ -60,16 +173,43 @@ public class GitHubService {
     @Value("${crawler.per-page:100}")            // GitHub /search/repositories per_page (최대 100)
     private int perPage;
 
-    @Value("${crawler.max-pages:10}")            // 페이지네이션 상한
+    @Value("${crawler.max-pages:10}")            // 페이지네이션 상한 (검색 조각당)
     private int maxPages;
 
-    @Value("${crawler.sleep-millis:150}")        // 각 rep션 처리 사이 딜레이, 레이트리밋 보호
-    private long sleepMillis;
+    @Value("${crawler.search.slice-concurrency:2}") // 동시에 페이지를 조회할 검색 조각 수
+    private int sliceConcurrency;
+
+    @Value("${crawler.concurrency:8}")           // 동시에 진행할 리포 수집 수
+    private int concurrency;
+
+    @Value("${crawler.persist-chunk-size:50}")   // 트랜잭션 하나에 반영할 리포 수
+    private int persistChunkSize;
+
+    @Value("${crawler.readme.max-age-days:30}")  // pushedAt 이 그대로여도 README 를 다시 확인하는 주기
+    private int readmeMaxAgeDays;
 
     // ====== 스케줄링 크론 표현식 ======
     @Value("${crawler.cron:0 0 0 */3 * *}")
     private String cron;
 
+    // ====== 증분 수집 파라미터 ======
+    @Value("${crawler.delta.overlap-minutes:10}")        // 워터마크를 이만큼 겹쳐서 검색 (누락 방지)
+    private long deltaOverlapMinutes;
+
+    @Value("${trend.delta.min-evaluate-interval-hours:72}") // 증분 수집 시 트렌드 재평가 최소 간격
+    private long deltaMinEvaluateIntervalHours;
+
+    // ====== GraphQL 재수집 파라미터 ======
+    @Value("${github.graphql.batch-size:50}")            // nodes(ids:) 한 번에 조회할 리포 수 (최대 100)
+    private int graphqlBatchSize;
+
+    // ====== AI 후보 작업 큐 ======
+    @Value("${ai.queue.lease-seconds:900}")      // claim 후 ack 까지 기본 lease 기간
+    private long defaultLeaseSeconds;
+
+    @Value("${ai.queue.max-attempts:5}")         // 이 횟수만큼 claim 된 후보는 더 이상 나가지 않음
+    private int maxClaimAttempts;
+
     // ====== 트렌드 계산 파라미터 ======
     @Value("${trend.weight.growth:1.0}")         // 증가율 가중치
     private double growthWeight;
@@ -85,69 +225,299 @@ public class GitHubService {
 
     public GitHubService(
             WebClient githubWebClient,
+            GitHubGraphQlClient graphQl,
+            GitHubRateLimiter rateLimiter,
             GitHubRepository repoRepo,
-            TrendingCandidateRepository candRepo
+            TrendingCandidateRepository candRepo,
+            CrawlWatermarkRepository watermarkRepo,
+            StarHistoryService starHistory,
+            ComicSearchService comicSearch,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
     ) {
         this.github = githubWebClient;
+        this.graphQl = graphQl;
+        this.rateLimiter = rateLimiter;
         this.repoRepo = repoRepo;
         this.candRepo = candRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.starHistory = starHistory;
+        this.comicSearch = comicSearch;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
     }
 
     // ──────────────────────────────────────────────────────────────
     //    주기적으로 전체 수집 (조건: 최근 N년 + 최소 스타수)
     // ──────────────────────────────────────────────────────────────
     @Scheduled(cron = "${crawler.cron:0 0 0 */3 * *}")
-    @Transactional
     public void crawlAllAndEvaluate() {
-        String since = OffsetDateTime.now(ZoneOffset.UTC)
-                .minusYears(searchYears)
-                .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-        // GitHub search q 파라미터
-        // created:>=YYYY-MM-DD → "created:%3E%3DYYYY-MM-DD" (%3E%3D == ">=" 인코딩)
-        String q = "stars:>=" + minStars + "+created:%3E%3D" + since;
-
-        for (int page = 1; page <= maxPages; page++) {
-
-            final int currentPage = page; 
-
-            Map<String, Object> searchResult = github.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/search/repositories")
-                            .queryParam("q", q)
-                            .queryParam("sort", "stars")
-                            .queryParam("order", "desc")
-                            .queryParam("per_page", perPage)
-                            .queryParam("page", currentPage)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .onErrorResume(ex -> {
-                        return Mono.empty();
-                    })
-                    .block();
-
-            if (searchResult == null) {
-                break; 
-            }
+        crawlSearch("", CrawlMode.FULL);
+    }
 
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> items = (List<Map<String, Object>>) searchResult.get("items");
-            if (items == null || items.isEmpty()) {
-                break; 
+    // ──────────────────────────────────────────────────────────────
+    //    주기적으로 증분 수집 (조건: 마지막 성공한 증분 수집 이후 push 된 리포)
+    // ──────────────────────────────────────────────────────────────
+    @Scheduled(cron = "${crawler.delta.cron:0 30 * * * *}")
+    public void crawlDeltaAndEvaluate() {
+        // 워터마크는 이번 수집의 "시작" 시각으로 전진 (수집 중에 push 된 리포는 다음 실행이 다시 검색)
+        OffsetDateTime startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime watermark = watermarkRepo.findById(DELTA_WATERMARK)
+                .map(CrawlWatermarkEntity::getWatermark)
+                // 워터마크 도입 전 → 기존 리포 수집 시각으로 한 번만 시작점을 잡음
+                .orElseGet(repoRepo::findMaxLastCrawledAt);
+        if (watermark == null) {
+            // 아직 전체 수집 전 → 전체 수집이 기준점을 만든다
+            log.info("Skipping delta crawl: no previous crawl");
+            return;
+        }
+
+        String pushedSince = watermark.withOffsetSameInstant(ZoneOffset.UTC)
+                .minusMinutes(deltaOverlapMinutes)
+                .truncatedTo(ChronoUnit.SECONDS)
+                .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+
+        // pushed:>=YYYY-MM-DDTHH:MM:SSZ → "pushed:%3E%3D..." (%3E%3D == ">=" 인코딩)
+        if (crawlSearch("+pushed:%3E%3D" + pushedSince, CrawlMode.DELTA)) {
+            watermarkRepo.save(new CrawlWatermarkEntity(DELTA_WATERMARK, startedAt));
+            log.info("Delta watermark advanced: {} -> {}", watermark, startedAt);
+        } else {
+            log.warn("Delta watermark kept at {}: crawl skipped or incomplete", watermark);
+        }
+    }
+
+    /*
+     * 검색 결과 전체를 수집/반영
+     *  - 검색 1회당 1,000건 상한 → created 기간(필요하면 스타 구간)을 쪼개 각 조각이 상한 미만이 되게 함
+     *  - 조각들은 crawler.search.slice-concurrency 만큼 동시에 페이지 조회, repo id 로 중복 제거
+     *
+     * @param extraQualifiers 조각 쿼리 뒤에 붙일 추가 조건 (예: "+pushed:%3E%3D...")
+     * @return 실패한 검색 호출/청크 없이 끝까지 수집했으면 true (다른 수집 중이라 건너뛰면 false)
+     */
+    private boolean crawlSearch(String extraQualifiers, CrawlMode mode) {
+        if (!crawling.compareAndSet(false, true)) {
+            log.info("Skipping {} crawl: another crawl is running", mode);
+            return false;
+        }
+        try {
+            crawlFailures.set(0);
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            SearchSlice root = new SearchSlice(today.minusYears(searchYears), today, minStars, null);
+            List<SearchSlice> slices = partition(root, extraQualifiers);
+            log.info("GitHub {} crawl: {} search slices", mode, slices.size());
+
+            Set<Long> seen = ConcurrentHashMap.newKeySet();
+            ReadmeStats readmeStats = new ReadmeStats();
+
+            // 검색/README 수집은 비동기로 계속 진행, DB 반영은 호출 스레드에서 청크 단위 트랜잭션으로
+            Iterable<List<RepoSnapshot>> chunks = Flux.fromIterable(slices)
+                    .flatMap(slice -> searchAllPages(slice.query(extraQualifiers)), sliceConcurrency)
+                    .map(items -> items.stream()
+                            .filter(item -> item.get("id") != null && item.get("full_name") != null)
+                            .filter(item -> seen.add(((Number) item.get("id")).longValue()))
+                            .toList())
+                    .filter(items -> !items.isEmpty())
+                    .concatMap(this::withReadmeStates)
+                    // 검색 결과 item 이 곧 메타데이터 → README 만 concurrency 만큼 동시에 수집
+                    .flatMap(pending -> fetchSnapshot(pending.item(), pending.prev(), readmeStats), concurrency)
+                    .buffer(persistChunkSize)
+                    .toIterable();
+
+            int crawled = 0;
+            for (List<RepoSnapshot> chunk : chunks) {
+                crawled += persistChunk(chunk, mode);
             }
 
-            for (Map<String, Object> item : items) {
-                String fullName = (String) item.get("full_name"); // "owner/repo"
-                if (fullName == null) continue;
+            readmeStats.publish(meterRegistry);
+            int failures = crawlFailures.get();
+            log.info("GitHub {} crawl finished: repos={}, failures={}, readme={}, coreRemaining={}",
+                    mode, crawled, failures, readmeStats, rateLimiter.remaining(GitHubRateLimiter.CORE));
+            return failures == 0;
+        } finally {
+            crawling.set(false);
+        }
+    }
+
+    /*
+     * 결과가 상한(1,000건) 이상인 조각을 재귀적으로 분할
+     *  - 기간이 이틀 이상 → created 기간을 반으로
+     *  - 하루짜리 → 스타 구간을 (기하평균 기준) 반으로
+     *  - 더 못 쪼개면 그대로 (상한까지만 수집)
+     */
+    private List<SearchSlice> partition(SearchSlice slice, String extraQualifiers) {
+        SearchProbe probe = probeSearch(slice.query(extraQualifiers)).block();
+        if (probe == null) {
+            // 조회 실패 → 분할 없이 시도
+            return List.of(slice);
+        }
 
-                try {
-                    upsertAndEvaluate(fullName);
-                    Thread.sleep(sleepMillis);
-                } catch (Exception ignore) {
-                    // TODO: 로깅
+        long cap = Math.min(SEARCH_RESULT_CAP, (long) perPage * maxPages);
+        if (probe.totalCount() == 0) {
+            return List.of();
+        }
+        if (probe.totalCount() < cap) {
+            return List.of(slice);
+        }
+
+        List<SearchSlice> result = new ArrayList<>();
+        long days = ChronoUnit.DAYS.between(slice.createdFrom(), slice.createdTo());
+        if (days >= 1) {
+            LocalDate mid = slice.createdFrom().plusDays(days / 2);
+            result.addAll(partition(slice.withCreated(slice.createdFrom(), mid), extraQualifiers));
+            result.addAll(partition(slice.withCreated(mid.plusDays(1), slice.createdTo()), extraQualifiers));
+            return result;
+        }
+
+        int maxStarsInSlice = (slice.maxStars() != null) ? slice.maxStars() : orZero(probe.topStars());
+        int midStars = (int) Math.sqrt((double) Math.max(1, slice.minStars()) * Math.max(1, maxStarsInSlice));
+        if (midStars > slice.minStars() && midStars < maxStarsInSlice) {
+            result.addAll(partition(slice.withStars(slice.minStars(), midStars), extraQualifiers));
+            result.addAll(partition(slice.withStars(midStars + 1, slice.maxStars()), extraQualifiers));
+            return result;
+        }
+
+        log.warn("Search slice still exceeds the result cap: q={}, total={}",
+                slice.query(extraQualifiers), probe.totalCount());
+        return List.of(slice);
+    }
+
+    /*
+     * 조각 하나의 모든 페이지 (빈 페이지/마지막 페이지에서 중단)
+     */
+    private Flux<List<Map<String, Object>>> searchAllPages(String q) {
+        return Flux.range(1, maxPages)
+                .concatMap(page -> searchRepositories(q, page).defaultIfEmpty(List.of()))
+                .takeWhile(items -> !items.isEmpty())
+                .takeUntil(items -> items.size() < perPage);
+    }
+
+    /*
+     * 한 페이지의 기존 README 상태를 한 번에 로드 (readmeText 제외, JDBC 라서 boundedElastic)
+     */
+    private Flux<PendingRepo> withReadmeStates(List<Map<String, Object>> items) {
+        List<Long> ids = items.stream()
+                .map(item -> ((Number) item.get("id")).longValue())
+                .toList();
+
+        return Mono.fromCallable(() -> repoRepo.findReadmeStatesByIdIn(ids).stream()
+                        .collect(Collectors.toMap(GitHubRepository.ReadmeState::getId, Function.identity())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(existing -> Flux.fromIterable(items)
+                        .map(item -> new PendingRepo(item, existing.get(((Number) item.get("id")).longValue()))));
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //    주기적으로 알려진 리포 재수집 (GraphQL 배치, nodeId 기준)
+    // ──────────────────────────────────────────────────────────────
+    @Scheduled(cron = "${crawler.refresh.cron:0 15 */6 * * *}")
+    public void refreshKnownRepositories() {
+        refreshKnownRepositoriesNow();
+    }
+
+    /*
+     * @return 반영된 리포 수 / 실패한 GraphQL 배치 수 / 조회되지 않은(삭제·권한 없음) 리포 수
+     */
+    public RefreshResult refreshKnownRepositoriesNow() {
+        if (!crawling.compareAndSet(false, true)) {
+            log.info("Skipping {} crawl: another crawl is running", CrawlMode.REFRESH);
+            return new RefreshResult(0, 0, 0);
+        }
+        try {
+            crawlFailures.set(0);
+            int refreshed = 0;
+            int failedBatches = 0;
+            int missing = 0;
+            long afterId = 0L;
+            ReadmeStats readmeStats = new ReadmeStats();
+            while (true) {
+                // concurrency 개 배치 분량씩 DB 에서 꺼냄
+                List<GitHubRepository.NodeRef> refs = repoRepo.findNodeRefsAfter(
+                        afterId, PageRequest.of(0, graphqlBatchSize * concurrency));
+                if (refs.isEmpty()) {
+                    break;
+                }
+                afterId = refs.get(refs.size() - 1).getId();
+
+                Map<String, GitHubRepository.NodeRef> byNodeId = refs.stream()
+                        .collect(Collectors.toMap(GitHubRepository.NodeRef::getNodeId, Function.identity(), (a, b) -> a));
+                List<GitHubGraphQlClient.KnownRepo> known = byNodeId.values().stream()
+                        .map(ref -> new GitHubGraphQlClient.KnownRepo(ref.getNodeId(), ref.getReadmeSha()))
+                        .toList();
+
+                List<GitHubGraphQlClient.BatchResult> batches = graphQl
+                        .fetchBatches(known, graphqlBatchSize, concurrency)
+                        .collectList()
+                        .block();
+
+                List<RepoSnapshot> snapshots = new ArrayList<>();
+                for (GitHubGraphQlClient.BatchResult batch : batches) {
+                    if (batch.failed()) {
+                        failedBatches++;
+                    }
+                    missing += batch.missing();
+                    batch.repositories().forEach(repo ->
+                            snapshots.add(toGraphQlSnapshot(repo, byNodeId, batch.readmeTexts(), readmeStats)));
+                }
+
+                for (int from = 0; from < snapshots.size(); from += persistChunkSize) {
+                    List<RepoSnapshot> chunk = snapshots.subList(
+                            from, Math.min(from + persistChunkSize, snapshots.size()));
+                    refreshed += persistChunk(chunk, CrawlMode.REFRESH);
                 }
             }
+
+            readmeStats.publish(meterRegistry);
+            RefreshResult result = new RefreshResult(refreshed, failedBatches, missing);
+            if (failedBatches > 0) {
+                log.warn("GitHub {} crawl finished with failed batches: {}, readme={}, graphqlRemaining={}",
+                        CrawlMode.REFRESH, result, readmeStats, rateLimiter.remaining(GitHubRateLimiter.GRAPHQL));
+            } else {
+                log.info("GitHub {} crawl finished: {}, readme={}, graphqlRemaining={}",
+                        CrawlMode.REFRESH, result, readmeStats, rateLimiter.remaining(GitHubRateLimiter.GRAPHQL));
+            }
+            return result;
+        } finally {
+            crawling.set(false);
+        }
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //    저장된 growthRate 로 전체 재채점 (GitHub 호출 없음)
+    // ──────────────────────────────────────────────────────────────
+    /*
+     * trend.* 파라미터 변경 후 전체 리포를 SQL 한 문장으로 재채점
+     *  - score 는 evaluateTrendAndMaybePromote() 와 같은 식으로 다시 계산
+     *  - stage 0 → 1 승급 / 1 → 0 강등 (1 → 2 는 수집 평가에서만) → 반복 호출해도 결과 동일
+     *  - stage 2 이고 새 임계값을 넘는 리포 중 후보가 없는 것만 trending_candidates 에 insert
+     *  - growthRate 가 없는(한 번도 평가 안 된) 리포는 제외
+     *
+     * @return 재채점 / 승급 / 강등된 리포 수, 새 후보 수
+     */
+    public RescoreResult rescoreAll() {
+        if (!crawling.compareAndSet(false, true)) {
+            // 수집 중 평가와 stage 갱신이 겹치지 않도록
+            log.info("Skipping rescore: a crawl is running");
+            return new RescoreResult(0, 0, 0, 0);
+        }
+        try {
+            Object[] row = txTemplate.execute(status -> (Object[]) em.createNativeQuery(RESCORE_SQL)
+                    .setParameter("growthWeight", growthWeight)
+                    .setParameter("penaltyWeight", penaltyWeight)
+                    .setParameter("halfLifeDays", ageHalfLifeDays)
+                    .setParameter("threshold", trendThreshold)
+                    .getSingleResult());
+
+            RescoreResult result = new RescoreResult(
+                    ((Number) row[0]).intValue(),
+                    ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(),
+                    ((Number) row[3]).intValue()
+            );
+            log.info("Trend rescore finished: repos={}, promoted={}, demoted={}, queued={}",
+                    result.rescored(), result.promoted(), result.demoted(), result.queued());
+            return result;
+        } finally {
+            crawling.set(false);
         }
     }
 
@@ -161,58 +531,104 @@ public class GitHubService {
         String repoName = parts[1];
 
         // 메타데이터 수집
-        Map<String, Object> meta = github.get()
-                .uri("/repos/{owner}/{repo}", owner, repoName)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
+        Map<String, Object> meta = fetchMeta(owner, repoName).block();
         if (meta == null) {
             return null;
         }
 
         GitHubEntity existing = repoRepo.findById(((Number) meta.get("id")).longValue()).orElse(null);
-        GitHubEntity e = mapMetaToEntity(meta, existing);
 
-        // README 수집
-        fetchAndAttachReadme(owner, repoName, e);
-
-        // 트렌드 점수 계산/승급 
-        evaluateTrendAndMaybePromote(e);
+        // README 수집 (수동 호출은 정책과 무관하게 조건부 요청)
+        ReadmePayload readme = fetchReadme(
+                        owner,
+                        repoName,
+                        existing != null ? existing.getReadmeEtag() : null,
+                        existing != null ? existing.getReadmeLastModified() : null)
+                .defaultIfEmpty(ReadmePayload.FAILED)
+                .block();
 
-        // 크롤링 시간 기록
-        e.setLastCrawledAt(OffsetDateTime.now(ZoneOffset.UTC));
-        return repoRepo.save(e);
+        GitHubEntity e = applySnapshot(new RepoSnapshot(fullName, meta, readme), existing);
+        e = repoRepo.save(e);
+        evaluateChunk(List.of(e), CrawlMode.FULL);
+        return e;
     }
 
     // ──────────────────────────────────────────────────────────────
-    //  AI요청에 후보 반환
+    //  AI요청에 후보 반환 (작업 큐)
     // ──────────────────────────────────────────────────────────────
+    /*
+     * 레거시: 받은 즉시 완료 처리 (재시도 없음)
+     */
     @Transactional
     public List<GitHubEntity> getOldestUngivenCandidatesAndMark(int limit) {
-        var pageReq = PageRequest.of(
-                0,
-                limit,
-                Sort.by(Sort.Direction.ASC, "promotedAt")
-        );
-
         List<TrendingCandidateEntity> picks =
-                candRepo.findByGivenToAIFalseOrderByPromotedAtAsc(pageReq);
+                candRepo.claimAndComplete(limit, UUID.randomUUID().toString());
         if (picks.isEmpty()) {
             return List.of();
         }
 
-        // 준 걸로 표시
-        for (TrendingCandidateEntity c : picks) {
-            c.setGivenToAI(true);
+        // 실제 리포 엔티티들 로드해서 반환
+        Map<Long, GitHubEntity> repos = loadCandidateRepos(picks);
+        return picks.stream()
+                .sorted(PROMOTED_FIRST)
+                .map(c -> repos.get(c.getRepoId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /*
+     * 워커용 claim: lease 기간 동안만 점유, ack 하지 않으면 만료 후 다른 워커가 다시 가져감
+     *  - 동시 호출끼리는 SKIP LOCKED 로 겹치지 않음
+     *  - ai.queue.max-attempts 번 claim 된 후보는 더 이상 나가지 않음
+     */
+    @Transactional
+    public List<CandidateLease> claimCandidates(int limit, Long leaseSeconds) {
+        long lease = (leaseSeconds == null || leaseSeconds <= 0) ? defaultLeaseSeconds : leaseSeconds;
+        String token = UUID.randomUUID().toString();
+
+        List<TrendingCandidateEntity> picks = candRepo.claim(limit, lease, maxClaimAttempts, token);
+        if (picks.isEmpty()) {
+            return List.of();
         }
-        candRepo.saveAll(picks);
 
-        // 실제 리포 엔티티들 로드해서 반환
+        Map<Long, GitHubEntity> repos = loadCandidateRepos(picks);
+        return picks.stream()
+                .sorted(PROMOTED_FIRST)
+                .map(c -> new CandidateLease(
+                        c.getId(),
+                        c.getLeaseToken(),
+                        c.getLeasedUntil(),
+                        orZero(c.getAttempts()),
+                        repos.get(c.getRepoId())))
+                .toList();
+    }
+
+    /*
+     * 완료 처리. lease 를 잃었으면(만료 후 다른 워커가 claim) false
+     */
+    @Transactional
+    public boolean ackCandidate(Long candidateId, String leaseToken) {
+        return candRepo.ack(candidateId, leaseToken) > 0;
+    }
+
+    /*
+     * 실패 처리 → lease 반납 (바로 재시도 대상)
+     */
+    @Transactional
+    public boolean nackCandidate(Long candidateId, String leaseToken) {
+        return candRepo.nack(candidateId, leaseToken) > 0;
+    }
+
+    // RETURNING 결과는 순서가 없으므로 오래된 후보부터 다시 정렬
+    private static final Comparator<TrendingCandidateEntity> PROMOTED_FIRST = Comparator.comparing(
+            TrendingCandidateEntity::getPromotedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private Map<Long, GitHubEntity> loadCandidateRepos(List<TrendingCandidateEntity> picks) {
         List<Long> repoIds = picks.stream()
                 .map(TrendingCandidateEntity::getRepoId)
                 .toList();
-
-        return repoRepo.findAllById(repoIds);
+        return repoRepo.findAllById(repoIds).stream()
+                .collect(Collectors.toMap(GitHubEntity::getId, Function.identity()));
     }
 
     // ──────────────────────────────────────────────────────────────
@@ -220,15 +636,167 @@ public class GitHubService {
     // ──────────────────────────────────────────────────────────────
 
     /*
-    * README를 GitHub API로 가져오기
-    */
-    private void fetchAndAttachReadme(String owner, String repoName, GitHubEntity e) {
+     * 검색 결과 수 + 최상위 스타 수 (분할 판단용, per_page=1)
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<SearchProbe> probeSearch(String q) {
+        return withRateLimit(GitHubRateLimiter.SEARCH, () -> github.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/search/repositories")
+                                .queryParam("q", q)
+                                .queryParam("sort", "stars")
+                                .queryParam("order", "desc")
+                                .queryParam("per_page", 1)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(Map.class))
+                .map(result -> {
+                    Number total = (Number) result.get("total_count");
+                    List<Map<String, Object>> items = (List<Map<String, Object>>) result.get("items");
+                    Number top = (items == null || items.isEmpty())
+                            ? null
+                            : (Number) items.get(0).get("stargazers_count");
+                    return new SearchProbe(
+                            total == null ? 0L : total.longValue(),
+                            top == null ? null : top.intValue()
+                    );
+                })
+                .onErrorResume(ex -> {
+                    log.warn("GitHub search probe failed: q={}", q, ex);
+                    crawlFailures.incrementAndGet();
+                    return Mono.empty();
+                });
+    }
+
+    /*
+     * 검색 결과 한 페이지
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<List<Map<String, Object>>> searchRepositories(String q, int page) {
+        return withRateLimit(GitHubRateLimiter.SEARCH, () -> github.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/search/repositories")
+                                .queryParam("q", q)
+                                .queryParam("sort", "stars")
+                                .queryParam("order", "desc")
+                                .queryParam("per_page", perPage)
+                                .queryParam("page", page)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(Map.class))
+                .map(result -> (List<Map<String, Object>>) result.get("items"))
+                .onErrorResume(ex -> {
+                    log.warn("GitHub search failed: page={}", page, ex);
+                    crawlFailures.incrementAndGet();
+                    return Mono.empty();
+                });
+    }
+
+    /*
+     * 검색 결과 item 을 메타로 그대로 쓰고 README 만 비동기로 수집
+     * (/search/repositories item 은 /repos/{owner}/{repo} 와 같은 필드를 담고 있어 메타 재호출 불필요)
+     */
+    private Mono<RepoSnapshot> fetchSnapshot(
+            Map<String, Object> item,
+            GitHubRepository.ReadmeState prev,
+            ReadmeStats stats
+    ) {
+        String fullName = (String) item.get("full_name"); // "owner/repo"
+        String[] parts = splitFullName(fullName);
+        String owner = parts[0];
+        String repoName = parts[1];
+
+        // 변경이 없으면 README 호출 자체를 생략
+        if (!needsReadmeRefresh(prev, parseTime((String) item.get("pushed_at")))) {
+            stats.skipped(prev.getReadmeSize());
+            return Mono.just(new RepoSnapshot(fullName, item, ReadmePayload.SKIPPED));
+        }
+
+        String etag = (prev != null) ? prev.getReadmeEtag() : null;
+        String lastModified = (prev != null) ? prev.getReadmeLastModified() : null;
+        return fetchReadme(owner, repoName, etag, lastModified)
+                .defaultIfEmpty(ReadmePayload.FAILED)
+                .doOnNext(readme -> stats.record(readme, prev != null ? prev.getReadmeSize() : null))
+                .map(readme -> new RepoSnapshot(fullName, item, readme))
+                .onErrorResume(ex -> {
+                    // README 실패해도 메타데이터는 반영
+                    log.warn("Failed to fetch README: {}", fullName, ex);
+                    return Mono.just(new RepoSnapshot(fullName, item, ReadmePayload.FAILED));
+                });
+    }
+
+
+    private RepoSnapshot toGraphQlSnapshot(
+            GitHubGraphQlClient.GraphQlRepository repo,
+            Map<String, GitHubRepository.NodeRef> byNodeId,
+            Map<String, GitHubGraphQlClient.ReadmeBlob> textByNodeId,
+            ReadmeStats stats
+    ) {
+        String nodeId = repo.nodeId();
+        GitHubRepository.NodeRef ref = byNodeId.get(nodeId);
+        Integer prevSize = (ref != null) ? ref.getReadmeSize() : null;
+
+        ReadmePayload readme;
+        if (repo.readme() == null) {
+            // 후보 경로에 README 없음 (다른 파일명일 수 있음) → 기존 값 유지
+            readme = ReadmePayload.SKIPPED;
+            stats.skipped(prevSize);
+        } else if (ref != null && repo.readme().oid().equals(ref.getReadmeSha())) {
+            readme = ReadmePayload.NOT_MODIFIED;
+            stats.record(readme, prevSize);
+        } else {
+            GitHubGraphQlClient.ReadmeBlob blob = textByNodeId.get(nodeId);
+            readme = (blob == null || blob.text() == null)
+                    ? ReadmePayload.FAILED
+                    : ReadmePayload.ofText(blob.text(), blob.oid(), blob.size());
+            stats.record(readme, prevSize);
+        }
 
-        Map<String, Object> readmeResponse = github.get()
+        return new RepoSnapshot((String) repo.meta().get("full_name"), repo.meta(), readme);
+    }
+
+    /*
+     * 메타데이터 (/repos/{owner}/{repo})
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> fetchMeta(String owner, String repoName) {
+        return withRateLimit(GitHubRateLimiter.CORE, () -> github.get()
+                .uri("/repos/{owner}/{repo}", owner, repoName)
+                .retrieve()
+                .bodyToMono(Map.class))
+                .map(meta -> (Map<String, Object>) meta);
+    }
+
+    /*
+     * README 재수집 정책
+     *  - 한 번도 확인 안 함 → 수집
+     *  - pushedAt 이 마지막 확인 때와 다름 → 수집
+     *  - 마지막 확인이 readmeMaxAgeDays 보다 오래됨 → 수집 (SHA 가 낡았을 수 있음)
+     */
+    private boolean needsReadmeRefresh(GitHubRepository.ReadmeState prev, OffsetDateTime pushedAt) {
+        if (prev == null || prev.getReadmeFetchedAt() == null) {
+            return true;
+        }
+        if (pushedAt == null || prev.getReadmePushedAt() == null
+                || !pushedAt.isEqual(prev.getReadmePushedAt())) {
+            return true;
+        }
+        return prev.getReadmeFetchedAt()
+                .isBefore(OffsetDateTime.now(ZoneOffset.UTC).minusDays(readmeMaxAgeDays));
+    }
+
+    /*
+    * README를 GitHub API로 가져오기 (ETag / Last-Modified 조건부 요청)
+    */
+    @SuppressWarnings("unchecked")
+    private Mono<ReadmePayload> fetchReadme(String owner, String repoName, String etag, String lastModified) {
+        return withRateLimit(GitHubRateLimiter.CORE, () -> github.get()
                 .uri("/repos/{owner}/{repo}/readme", owner, repoName)
                 .headers(h -> {
-                    if (e.getReadmeEtag() != null) {
-                        h.add("If-None-Match", e.getReadmeEtag());
+                    if (etag != null) {
+                        h.add(HttpHeaders.IF_NONE_MATCH, etag);
+                    } else if (lastModified != null) {
+                        h.add(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
                     }
                 })
                 .exchangeToMono(resp -> {
@@ -236,45 +804,193 @@ public class GitHubService {
 
                     // README 변동 x 
                     if (code == 304) {
-                        return Mono.empty();
+                        return Mono.just(ReadmePayload.NOT_MODIFIED);
                     }
 
                     // README 없음
                     if (code == 404) {
-                        return Mono.empty();
+                        return Mono.just(ReadmePayload.MISSING);
+                    }
+
+                    // 레이트리밋 → 재시도 대상
+                    if (code == 403 || code == 429) {
+                        return resp.createError();
                     }
 
                     // 정상 응답(2xx)
                     if (code >= 200 && code < 300) {
-                        return resp.bodyToMono(Map.class);
+                        HttpHeaders headers = resp.headers().asHttpHeaders();
+                        String newEtag = headers.getETag();
+                        String newLastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+                        return resp.bodyToMono(Map.class)
+                                .map(body -> ReadmePayload.of((Map<String, Object>) body, newEtag, newLastModified));
                     }
 
                     // 그 외 
                     return Mono.empty();
-                })
-                .block();
+                }));
+    }
+
+    /*
+     * 레이트리밋 대기 후 호출, 레이트리밋 응답이면 대기 후 재시도
+     */
+    private <T> Mono<T> withRateLimit(String resource, Supplier<Mono<T>> call) {
+        return rateLimiter.call(resource, call);
+    }
+
+    /*
+     * 청크 하나를 별도 트랜잭션으로 반영. 저장된 리포 수 리턴 (실패 시 0, 이전 청크는 유지)
+     */
+    private int persistChunk(List<RepoSnapshot> chunk, CrawlMode mode) {
+        try {
+            Integer saved = txTemplate.execute(status -> {
+                List<Long> ids = chunk.stream()
+                        .map(snapshot -> ((Number) snapshot.meta().get("id")).longValue())
+                        .toList();
+
+                // 청크 내 기존 엔티티를 한 번에 managed 상태로 로드
+                Map<Long, GitHubEntity> managed = repoRepo.findAllById(ids).stream()
+                        .collect(Collectors.toMap(GitHubEntity::getId, Function.identity()));
+
+                List<GitHubEntity> entities = new ArrayList<>();
+                List<GitHubEntity> created = new ArrayList<>();
+                List<String> searchChanged = new ArrayList<>();
+                for (RepoSnapshot snapshot : chunk) {
+                    Long id = ((Number) snapshot.meta().get("id")).longValue();
+                    GitHubEntity existing = managed.get(id);
+                    String prevDescription = (existing != null) ? existing.getDescription() : null;
+                    String prevReadmeSha = (existing != null) ? existing.getReadmeSha() : null;
+
+                    GitHubEntity e = applySnapshot(snapshot, existing);
+                    entities.add(e);
+                    if (existing == null) {
+                        created.add(e);
+                    }
+                    if (existing == null
+                            || !Objects.equals(prevDescription, e.getDescription())
+                            || !Objects.equals(prevReadmeSha, e.getReadmeSha())) {
+                        searchChanged.add(e.getFullName());
+                    }
+                }
+
+                // id 를 직접 할당하는 엔티티라 save()(merge) 대신 persist → 추가 SELECT 없이 배치 insert
+                created.forEach(em::persist);
+
+                // 검색 문서 원본(description / README)이 바뀐 리포의 코믹은 재색인 대상으로 표시
+                comicSearch.markRepositoriesDirty(searchChanged);
+
+                // 스타 스냅샷 저장 + 속도 계산 후 트렌드 평가
+                evaluateChunk(entities, mode);
+
+                em.flush();
+                em.clear();
+                return chunk.size();
+            });
+            return saved == null ? 0 : saved;
+        } catch (Exception ex) {
+            log.warn("Failed to persist crawl chunk: repos={}",
+                    chunk.stream().map(RepoSnapshot::fullName).toList(), ex);
+            crawlFailures.incrementAndGet();
+            return 0;
+        }
+    }
+
+    /*
+     * 수집 결과를 엔티티에 반영 (저장/평가는 호출 측)
+     */
+    private GitHubEntity applySnapshot(RepoSnapshot snapshot, GitHubEntity existing) {
+        GitHubEntity e = mapMetaToEntity(snapshot.meta(), existing);
+
+        // README 반영
+        attachReadme(snapshot.readme(), e);
+
+        // 크롤링 시간 기록
+        e.setLastCrawledAt(OffsetDateTime.now(ZoneOffset.UTC));
+        return e;
+    }
+
+    /*
+     * 청크 단위 평가
+     *  - 모든 리포의 스타 스냅샷 저장 (시계열은 평가 간격과 무관하게 쌓는다)
+     *  - 평가 대상만 속도/가속도를 쿼리 한 번으로 조회해 점수 계산/승급
+     */
+    private void evaluateChunk(List<GitHubEntity> entities, CrawlMode mode) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        starHistory.record(entities, now);
+
+        // 증분 수집은 평가 간격이 지난 리포만
+        List<GitHubEntity> due = entities.stream()
+                .filter(e -> mode == CrawlMode.FULL || isDueForEvaluation(e))
+                .toList();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<Long, StarHistoryService.StarVelocity> velocities = starHistory.velocities(due, now);
+        for (GitHubEntity e : due) {
+            evaluateTrendAndMaybePromote(e, velocities.get(e.getId()));
+        }
+    }
+
+    private boolean isDueForEvaluation(GitHubEntity e) {
+        return e.getLastCheckedAt() == null
+                || e.getLastCheckedAt().isBefore(
+                        OffsetDateTime.now(ZoneOffset.UTC).minusHours(deltaMinEvaluateIntervalHours));
+    }
 
-        if (readmeResponse == null) {
-            // 304나 404 등 무시 
+    /*
+     * README 응답을 엔티티에 반영 (304/404 등은 기존 값 유지)
+     */
+    private void attachReadme(ReadmePayload readme, GitHubEntity e) {
+        if (readme == null) {
             return;
         }
 
-        String encoded = (String) readmeResponse.get("content");
-        String encoding = (String) readmeResponse.get("encoding"); // 주로 "base64"
-        String sha = (String) readmeResponse.get("sha");
+        switch (readme.status()) {
+            case SKIPPED, FAILED -> {
+                return;
+            }
+            case NOT_MODIFIED -> {
+                markReadmeChecked(e);
+                return;
+            }
+            case MISSING -> {
+                e.setReadmeText(null);
+                e.setReadmeSha(null);
+                e.setReadmeEtag(null);
+                e.setReadmeLastModified(null);
+                e.setReadmeSize(null);
+                markReadmeChecked(e);
+                return;
+            }
+            default -> {
+                // FETCHED
+            }
+        }
 
         String text = null;
-        if (encoded != null && "base64".equalsIgnoreCase(encoding)) {
+        if (readme.content() != null && "base64".equalsIgnoreCase(readme.encoding())) {
+            // GitHub 는 base64 를 60자마다 줄바꿈해서 내려준다
             byte[] bytes = java.util.Base64
-                    .getDecoder()
-                    .decode(encoded.getBytes(StandardCharsets.UTF_8));
+                    .getMimeDecoder()
+                    .decode(readme.content().getBytes(StandardCharsets.UTF_8));
             text = new String(bytes, StandardCharsets.UTF_8);
+        } else if (ReadmePayload.TEXT_ENCODING.equals(readme.encoding())) {
+            // GraphQL blob 은 본문 그대로
+            text = readme.content();
         }
 
         e.setReadmeText(text);
-        e.setReadmeSha(sha);
+        e.setReadmeSha(readme.sha());
+        e.setReadmeEtag(readme.etag());
+        e.setReadmeLastModified(readme.lastModified());
+        e.setReadmeSize(readme.size());
+        markReadmeChecked(e);
+    }
 
-        // e.setReadmeEtag(newEtag);
+    private void markReadmeChecked(GitHubEntity e) {
+        e.setReadmeFetchedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        e.setReadmePushedAt(e.getPushedAt());
     }
 
     /*
@@ -327,14 +1043,19 @@ public class GitHubService {
     /*
      * score 계산 / stage update / candidate
      */
-    private void evaluateTrendAndMaybePromote(GitHubEntity e) {
+    private void evaluateTrendAndMaybePromote(GitHubEntity e, StarHistoryService.StarVelocity velocity) {
         int curr = orZero(e.getStargazersCount());
         int prev = orZero(e.getPreviousStars());
 
-        // 성장률
-        double growthRate = (prev <= 0)
-                ? 0.0
-                : (double) (curr - prev) / (double) prev;
+        // 성장률: 7일 시계열 기준, 7일 이상 지난 스냅샷이 없으면 직전 평가 대비
+        double growthRate;
+        if (velocity != null && velocity.growth7d() != null) {
+            growthRate = velocity.growth7d();
+        } else {
+            growthRate = (prev <= 0)
+                    ? 0.0
+                    : (double) (curr - prev) / (double) prev;
+        }
 
         // 나이 감쇠
         double agePenaltyFactor = 1.0;
@@ -368,6 +1089,12 @@ public class GitHubService {
         boolean promotedTo2Now = (oldStage < 2 && newStage == 2);
 
         e.setGrowthRate(growthRate);
+        if (velocity != null) {
+            e.setStarVelocity1d(velocity.velocity1d());
+            e.setStarVelocity7d(velocity.velocity7d());
+            e.setStarVelocity30d(velocity.velocity30d());
+            e.setStarAcceleration(velocity.acceleration());
+        }
         e.setTrendScore(score);
         e.setTrendStage(newStage);
         e.setLastCheckedAt(OffsetDateTime.now(ZoneOffset.UTC));
@@ -404,4 +1131,161 @@ public class GitHubService {
     private int orZero(Integer v) {
         return (v == null) ? 0 : v;
     }
+
+    public record RefreshResult(int refreshed, int failedBatches, int missing) {}
+
+    public record RescoreResult(int rescored, int promoted, int demoted, int queued) {}
+
+    /*
+     * claim 된 후보 하나 (ack/nack 시 candidateId + leaseToken 필요)
+     */
+    public record CandidateLease(
+            Long candidateId,
+            String leaseToken,
+            OffsetDateTime leasedUntil,
+            int attempts,
+            GitHubEntity repo
+    ) {}
+
+    private enum CrawlMode {
+        FULL,    // 전체 스캔
+        DELTA,   // 증분 스캔
+        REFRESH  // GraphQL 재수집
+    }
+
+    /*
+     * 검색 조각: stars:{min}..{max|*} created:{from}..{to}
+     */
+    private record SearchSlice(LocalDate createdFrom, LocalDate createdTo, int minStars, Integer maxStars) {
+
+        String query(String extraQualifiers) {
+            return "stars:" + minStars + ".." + (maxStars == null ? "*" : maxStars)
+                    + "+created:" + createdFrom + ".." + createdTo
+                    + extraQualifiers;
+        }
+
+        SearchSlice withCreated(LocalDate from, LocalDate to) {
+            return new SearchSlice(from, to, minStars, maxStars);
+        }
+
+        SearchSlice withStars(int min, Integer max) {
+            return new SearchSlice(createdFrom, createdTo, min, max);
+        }
+    }
+
+    private record SearchProbe(long totalCount, Integer topStars) {}
+
+    /*
+     * README 수집 대기 중인 검색 item + 기존 README 상태
+     */
+    private record PendingRepo(Map<String, Object> item, GitHubRepository.ReadmeState prev) {}
+
+    /*
+     * 한 리포의 수집 결과 (메타 + README)
+     */
+    private record RepoSnapshot(String fullName, Map<String, Object> meta, ReadmePayload readme) {}
+
+    /*
+     * README 응답 (content 는 base64)
+     */
+    private record ReadmePayload(
+            ReadmeStatus status,
+            String content,
+            String encoding,
+            String sha,
+            String etag,
+            String lastModified,
+            Integer size
+    ) {
+
+        static final String TEXT_ENCODING = "text";
+
+        static final ReadmePayload NOT_MODIFIED = ofStatus(ReadmeStatus.NOT_MODIFIED);
+        static final ReadmePayload MISSING = ofStatus(ReadmeStatus.MISSING);
+        static final ReadmePayload SKIPPED = ofStatus(ReadmeStatus.SKIPPED);
+        static final ReadmePayload FAILED = ofStatus(ReadmeStatus.FAILED);
+
+        static ReadmePayload of(Map<String, Object> body, String etag, String lastModified) {
+            Number size = (Number) body.get("size");
+            return new ReadmePayload(
+                    ReadmeStatus.FETCHED,
+                    (String) body.get("content"),
+                    (String) body.get("encoding"), // 주로 "base64"
+                    (String) body.get("sha"),
+                    etag,
+                    lastModified,
+                    size == null ? null : size.intValue()
+            );
+        }
+
+        // GraphQL blob (ETag/Last-Modified 없음)
+        static ReadmePayload ofText(String text, String sha, Integer size) {
+            return new ReadmePayload(ReadmeStatus.FETCHED, text, TEXT_ENCODING, sha, null, null, size);
+        }
+
+        private static ReadmePayload ofStatus(ReadmeStatus status) {
+            return new ReadmePayload(status, null, null, null, null, null, null);
+        }
+    }
+
+    private enum ReadmeStatus {
+        FETCHED,        // 200: 새 본문
+        NOT_MODIFIED,   // 304: 기존 본문 유지
+        MISSING,        // 404: README 없음
+        SKIPPED,        // 정책상 호출 생략
+        FAILED          // 그 외 오류 → 기존 값 유지
+    }
+
+    /*
+     * 크롤 1회분 README 통계 (수집/304/생략 횟수, 받은/아낀 바이트)
+     */
+    private static final class ReadmeStats {
+        private final AtomicLong fetched = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+        private final AtomicLong missing = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong bytesDownloaded = new AtomicLong();
+        private final AtomicLong bytesAvoided = new AtomicLong();
+
+        void record(ReadmePayload readme, Integer prevSize) {
+            switch (readme.status()) {
+                case FETCHED -> {
+                    fetched.incrementAndGet();
+                    bytesDownloaded.addAndGet(orZero(readme.size()));
+                }
+                case NOT_MODIFIED -> {
+                    notModified.incrementAndGet();
+                    bytesAvoided.addAndGet(orZero(prevSize));
+                }
+                case MISSING -> missing.incrementAndGet();
+                default -> {
+                }
+            }
+        }
+
+        void skipped(Integer size) {
+            skipped.incrementAndGet();
+            bytesAvoided.addAndGet(orZero(size));
+        }
+
+        void publish(MeterRegistry registry) {
+            registry.counter("github.readme.requests", "result", "fetched").increment(fetched.get());
+            registry.counter("github.readme.requests", "result", "not_modified").increment(notModified.get());
+            registry.counter("github.readme.requests", "result", "missing").increment(missing.get());
+            registry.counter("github.readme.requests", "result", "skipped").increment(skipped.get());
+            registry.counter("github.readme.bytes", "type", "downloaded").increment(bytesDownloaded.get());
+            registry.counter("github.readme.bytes", "type", "avoided").increment(bytesAvoided.get());
+        }
+
+        private static int orZero(Integer v) {
+            return (v == null) ? 0 : v;
+        }
+
+        @Override
+        public String toString() {
+            return "fetched=%d, notModified=%d, missing=%d, skipped=%d, bytesDownloaded=%d, bytesAvoided=%d"
+                    .formatted(fetched.get(), notModified.get(), missing.get(), skipped.get(),
+                            bytesDownloaded.get(), bytesAvoided.get());
+        }
+    }
 }
@@ -161,8 +161,7 @@ public class NewsletterService {
         }
         
         // 최신 트렌딩 코믹 조회 (상위 10개)
-        List<ComicResponse> trendingComics = comicService.getAllComics(1, 10, "stars")
-                .getData();
+        List<ComicResponse> trendingComics = comicService.getTopComics(10, "stars");
         
         if (trendingComics.isEmpty()) {
             log.warn("No comics found to send");
@@ -216,8 +215,7 @@ public class NewsletterService {
     @Transactional
     public Map<String, Object> sendTestNewsletter(String email) {
         // 최신 트렌딩 코믹 조회
-        List<ComicResponse> trendingComics = comicService.getAllComics(1, 5, "stars")
-                .getData();
+        List<ComicResponse> trendingComics = comicService.getTopComics(5, "stars");
         
         if (trendingComics.isEmpty()) {
             throw new CustomException(ErrorCode.RESOURCE_NOT_FOUND, "No comics found");
@@ -0,0 +1,177 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.entity.GitHubEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 리포 스타 수 시계열 (repo_star_snapshots) 저장/조회.
+ *
+ * 흐름:
+ *  - record()     : 크롤링 청크마다 (repo_id, 시각, 스타 수) 배치 insert
+ *                   (시각은 시간 단위 절삭 → 같은 시간대 재수집은 덮어써서 행 수를 제한)
+ *  - velocities() : 청크 전체의 1d/7d/30d 속도와 가속도를 쿼리 한 번으로 계산
+ *  - purgeExpired(): 보존 기간이 지난 스냅샷 삭제 (스케줄러)
+ *
+ * 속도 계산:
+ *   window 마다 "지금으로부터 window 이상 지난 가장 최근 스냅샷"을 기준점으로 잡고
+ *   velocity = (현재 스타 - 기준점 스타) / 경과 일수   (stars/day, 수집 간격이 들쭉날쭉해도 정규화)
+ *   growth7d = velocity7d * 7 / 기준점 스타
+ *   acceleration = velocity7d - (직전 7일 구간의 stars/day)
+ *
+ * 호출 측 트랜잭션(JPA)에 그대로 참여한다.
+ */
+@Service
+public class StarHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(StarHistoryService.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO repo_star_snapshots (repo_id, captured_at, stars)
+            VALUES (?, ?, ?)
+            ON CONFLICT (repo_id, captured_at) DO UPDATE SET stars = EXCLUDED.stars
+            """;
+
+    // 기준점: window 이상 지난 가장 최근 스냅샷 (PK (repo_id, captured_at) 역순 스캔 1건)
+    private static final String BASELINE = """
+            LEFT JOIN LATERAL (
+                SELECT s.stars, s.captured_at
+                FROM repo_star_snapshots s
+                WHERE s.repo_id = c.repo_id AND s.captured_at <= p.now_ts - INTERVAL '%s'
+                ORDER BY s.captured_at DESC
+                LIMIT 1
+            ) %s ON TRUE
+            """;
+
+    private static final String VELOCITY_SQL = """
+            WITH p AS (SELECT CAST(? AS timestamptz) AS now_ts),
+                 c AS (SELECT * FROM unnest(CAST(? AS bigint[]), CAST(? AS integer[])) AS t(repo_id, stars)),
+                 w AS (
+                    SELECT c.repo_id,
+                           (c.stars - b1.stars)  / NULLIF(EXTRACT(EPOCH FROM p.now_ts - b1.captured_at)  / 86400.0, 0) AS velocity_1d,
+                           (c.stars - b7.stars)  / NULLIF(EXTRACT(EPOCH FROM p.now_ts - b7.captured_at)  / 86400.0, 0) AS velocity_7d,
+                           (c.stars - b30.stars) / NULLIF(EXTRACT(EPOCH FROM p.now_ts - b30.captured_at) / 86400.0, 0) AS velocity_30d,
+                           (b7.stars - b14.stars) / NULLIF(EXTRACT(EPOCH FROM b7.captured_at - b14.captured_at) / 86400.0, 0) AS velocity_prev_7d,
+                           b7.stars AS baseline_7d
+                    FROM c
+                    CROSS JOIN p
+                    """
+            + BASELINE.formatted("1 day", "b1")
+            + BASELINE.formatted("7 days", "b7")
+            + BASELINE.formatted("14 days", "b14")
+            + BASELINE.formatted("30 days", "b30")
+            + """
+                 )
+            SELECT repo_id,
+                   velocity_1d,
+                   velocity_7d,
+                   velocity_30d,
+                   velocity_7d - velocity_prev_7d AS acceleration,
+                   velocity_7d * 7 / NULLIF(baseline_7d, 0) AS growth_7d
+            FROM w
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${trend.history.retention-days:120}") // 스냅샷 보존 기간 (30일 window + 여유)
+    private int retentionDays;
+
+    public StarHistoryService(JdbcTemplate jdbcTemplate) {
+        this.jdbc = jdbcTemplate;
+    }
+
+    /*
+     * 현재 스타 수 스냅샷 배치 저장
+     */
+    public void record(List<GitHubEntity> repos, OffsetDateTime now) {
+        List<GitHubEntity> rows = repos.stream()
+                .filter(e -> e.getId() != null && e.getStargazersCount() != null)
+                .toList();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp capturedAt = Timestamp.from(now.truncatedTo(ChronoUnit.HOURS).toInstant());
+        jdbc.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, e) -> {
+            ps.setLong(1, e.getId());
+            ps.setTimestamp(2, capturedAt);
+            ps.setInt(3, e.getStargazersCount());
+        });
+    }
+
+    /*
+     * 리포별 속도/가속도 (기준점이 없는 window 는 null)
+     */
+    public Map<Long, StarVelocity> velocities(List<GitHubEntity> repos, OffsetDateTime now) {
+        List<GitHubEntity> rows = repos.stream()
+                .filter(e -> e.getId() != null && e.getStargazersCount() != null)
+                .toList();
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+
+        Long[] ids = rows.stream().map(GitHubEntity::getId).toArray(Long[]::new);
+        Integer[] stars = rows.stream().map(GitHubEntity::getStargazersCount).toArray(Integer[]::new);
+
+        Map<Long, StarVelocity> result = new HashMap<>();
+        jdbc.query(VELOCITY_SQL, ps -> {
+            Array idArray = ps.getConnection().createArrayOf("bigint", ids);
+            Array starArray = ps.getConnection().createArrayOf("integer", stars);
+            ps.setTimestamp(1, Timestamp.from(now.toInstant()));
+            ps.setArray(2, idArray);
+            ps.setArray(3, starArray);
+        }, rs -> {
+            result.put(rs.getLong("repo_id"), new StarVelocity(
+                    nullableDouble(rs, "velocity_1d"),
+                    nullableDouble(rs, "velocity_7d"),
+                    nullableDouble(rs, "velocity_30d"),
+                    nullableDouble(rs, "acceleration"),
+                    nullableDouble(rs, "growth_7d")
+            ));
+        });
+        return result;
+    }
+
+    /*
+     * 보존 기간이 지난 스냅샷 삭제
+     */
+    @Scheduled(cron = "${trend.history.cleanup-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minusDays(retentionDays);
+        int deleted = jdbc.update(
+                "DELETE FROM repo_star_snapshots WHERE captured_at < ?",
+                Timestamp.from(cutoff.toInstant()));
+        log.info("Purged {} star snapshots older than {}", deleted, cutoff);
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double v = rs.getDouble(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    /*
+     * 스타 증가 속도 (stars/day), growth7d 는 7일 증가율
+     */
+    public record StarVelocity(
+            Double velocity1d,
+            Double velocity7d,
+            Double velocity30d,
+            Double acceleration,
+            Double growth7d
+    ) {}
+}
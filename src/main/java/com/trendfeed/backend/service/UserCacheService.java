@@ -0,0 +1,44 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * 사용자 프로필 캐시 무효화 (커밋 후 제거 → 동시 조회가 옛 값을 다시 캐시하지 않도록)
+ */
+@Service
+@RequiredArgsConstructor
+public class UserCacheService {
+    
+    private final CacheManager cacheManager;
+    
+    /*
+     * 프로필 / 선호 / 통계(저장·좋아요 수) 변경
+     */
+    public void evictProfile(String uid) {
+        afterCommit(() -> {
+            Cache cache = cacheManager.getCache(CacheConfig.USER_PROFILES);
+            if (cache != null) {
+                cache.evict(uid);
+            }
+        });
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
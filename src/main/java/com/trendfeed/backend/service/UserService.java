@@ -1,7 +1,10 @@
 package com.trendfeed.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trendfeed.backend.config.CacheConfig;
 import com.trendfeed.backend.dto.request.UpdateProfileRequest;
 import com.trendfeed.backend.dto.response.ComicResponse;
+import com.trendfeed.backend.dto.response.ComicViewerStateResponse;
 import com.trendfeed.backend.dto.response.PaginatedResponse;
 import com.trendfeed.backend.dto.response.UserResponse;
 import com.trendfeed.backend.entity.*;
@@ -10,26 +13,49 @@ import com.trendfeed.backend.exception.ErrorCode;
 import com.trendfeed.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
     
+    private static final int MAX_VIEWER_STATE_IDS = 100;
+    
+    private static final int EXPORT_FLUSH_ROWS = 100;
+    
     private final UserRepository userRepository;
     private final SavedComicRepository savedComicRepository;
     private final ComicRepository comicRepository;
+    private final ComicLikeService comicLikeService;
+    private final ComicCounterService comicCounterService;
+    private final UserCacheService userCacheService;
+    private final ObjectMapper objectMapper;
     
+    /**
+     * Cached until the profile, preferences, saved or liked comics change (see UserCacheService).
+     */
+    @Cacheable(value = CacheConfig.USER_PROFILES, key = "#uid")
     @Transactional(readOnly = true)
     public UserResponse getUserProfile(String uid) {
         User user = userRepository.findByUidWithPreferences(uid)
@@ -38,6 +64,15 @@ public class UserService {
         return mapToUserResponse(user);
     }
     
+    /**
+     * Same cache as getUserProfile, empty (not cached) if the user does not exist yet.
+     */
+    @Cacheable(value = CacheConfig.USER_PROFILES, key = "#uid", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<UserResponse> findUserProfile(String uid) {
+        return userRepository.findByUidWithPreferences(uid).map(this::mapToUserResponse);
+    }
+    
     @Transactional
     public UserResponse updateUserProfile(String uid, UpdateProfileRequest request) {
         User user = userRepository.findByUidWithPreferences(uid)
@@ -71,13 +106,15 @@ public class UserService {
         }
         
         User savedUser = userRepository.save(user);
+        userCacheService.evictProfile(uid);
         return mapToUserResponse(savedUser);
     }
     
     @Transactional(readOnly = true)
     public PaginatedResponse<ComicResponse> getSavedComics(String uid, int page, int limit) {
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<SavedComic> savedComicsPage = savedComicRepository.findByUserUidWithComic(uid, pageable);
+        Page<SavedComicRepository.SavedComicSummary> savedComicsPage =
+                savedComicRepository.findSummariesByUserUid(uid, pageable);
         
         List<ComicResponse> comics = savedComicsPage.getContent().stream()
                 .map(this::mapToComicResponse)
@@ -96,6 +133,52 @@ public class UserService {
                 .build();
     }
     
+    /**
+     * Writes the whole saved collection as NDJSON (one ComicResponse per line, newest first).
+     * Rows come from a DB cursor and are written as they arrive, so memory stays constant.
+     */
+    @Transactional(readOnly = true)
+    public void exportSavedComics(String uid, OutputStream out) throws IOException {
+        int written = 0;
+        try (Stream<SavedComicRepository.SavedComicSummary> rows = savedComicRepository.streamSummariesByUserUid(uid)) {
+            Iterator<SavedComicRepository.SavedComicSummary> it = rows.iterator();
+            while (it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(mapToComicResponse(it.next())));
+                out.write('\n');
+                if (++written % EXPORT_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.debug("Exported {} saved comics for user: {}", written, uid);
+    }
+    
+    /**
+     * Saved/liked flags for a page of comics: one IN query for saved, cached membership for liked.
+     */
+    @Transactional(readOnly = true)
+    public List<ComicViewerStateResponse> getViewerState(String uid, List<Long> comicIds) {
+        if (comicIds.size() > MAX_VIEWER_STATE_IDS) {
+            throw new CustomException(ErrorCode.INVALID_REQUEST, "Too many comic ids (max " + MAX_VIEWER_STATE_IDS + ")");
+        }
+        List<Long> ids = comicIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Set<Long> saved = new HashSet<>(savedComicRepository.findSavedComicIds(uid, ids));
+        Set<Long> liked = comicLikeService.likedAmong(uid, ids);
+        
+        return ids.stream()
+                .map(id -> ComicViewerStateResponse.builder()
+                        .comicId(id)
+                        .saved(saved.contains(id))
+                        .liked(liked.contains(id))
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
     @Transactional
     public Map<String, Object> saveComic(String uid, Long comicId) {
         // Check if user exists
@@ -118,6 +201,9 @@ public class UserService {
                 .build();
         
         SavedComic saved = savedComicRepository.save(savedComic);
+        // Count the save only once the row is committed (a rollback must not bump the counter)
+        afterCommit(() -> comicCounterService.addSave(comicId));
+        userCacheService.evictProfile(uid);
         
         Map<String, Object> response = new HashMap<>();
         response.put("comicId", comicId);
@@ -133,6 +219,7 @@ public class UserService {
                 .orElseThrow(() -> new CustomException(ErrorCode.COMIC_NOT_SAVED));
         
         savedComicRepository.delete(savedComic);
+        userCacheService.evictProfile(uid);
         
         Map<String, Object> response = new HashMap<>();
         response.put("comicId", comicId);
@@ -141,6 +228,19 @@ public class UserService {
         return response;
     }
     
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
     private UserResponse mapToUserResponse(User user) {
         UserResponse.UserPreferencesDto preferencesDto = null;
         if (user.getPreferences() != null) {
@@ -151,10 +251,9 @@ public class UserService {
                     .build();
         }
         
-        long savedComicsCount = savedComicRepository.countByUserUid(user.getUid());
         UserResponse.UserStatsDto stats = UserResponse.UserStatsDto.builder()
-                .savedComics(savedComicsCount)
-                .likedComics(0L)
+                .savedComics(user.getSavedComicsCount() != null ? user.getSavedComicsCount().longValue() : 0L)
+                .likedComics(comicLikeService.countLikes(user.getUid()))
                 .commentsCount(0L)
                 .build();
         
@@ -170,21 +269,18 @@ public class UserService {
                 .build();
     }
     
-    private ComicResponse mapToComicResponse(SavedComic savedComic) {
-        Comic comic = savedComic.getComic();
+    private ComicResponse mapToComicResponse(SavedComicRepository.SavedComicSummary savedComic) {
         return ComicResponse.builder()
-                .id(comic.getId())
-                .repoName(comic.getRepoName())
-                .repoUrl(comic.getRepoUrl())
-                .stars(comic.getStars())
-                .language(comic.getLanguage())
-                .panels(comic.getPanels())
-                .keyInsights(comic.getKeyInsights())
-                .isNew(comic.getIsNew())
-                .likes(comic.getLikes())
-                .shares(comic.getShares())
-                .comments(comic.getComments())
-                .createdAt(comic.getCreatedAt())
+                .id(savedComic.getId())
+                .repoName(savedComic.getRepoName())
+                .repoUrl(savedComic.getRepoUrl())
+                .stars(savedComic.getStars())
+                .language(savedComic.getLanguage())
+                .isNew(savedComic.getIsNew())
+                .likes(savedComic.getLikes())
+                .shares(savedComic.getShares())
+                .comments(savedComic.getComments())
+                .createdAt(savedComic.getCreatedAt())
                 .savedAt(savedComic.getSavedAt())
                 .build();
     }
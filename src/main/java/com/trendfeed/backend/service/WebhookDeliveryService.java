@@ -1,25 +1,33 @@
 package com.trendfeed.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trendfeed.backend.dto.response.WebhookDeliveryResponse;
 import com.trendfeed.backend.dto.response.PaginatedResponse;
 import com.trendfeed.backend.entity.Webhook;
 import com.trendfeed.backend.entity.WebhookDelivery;
-import com.trendfeed.backend.entity.WebhookDelivery.DeliveryStatus;
+import com.trendfeed.backend.entity.WebhookOutboxEvent;
 import com.trendfeed.backend.repository.WebhookDeliveryRepository;
+import com.trendfeed.backend.repository.WebhookOutboxRepository;
 import com.trendfeed.backend.repository.WebhookRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.crypto.Mac;
@@ -29,6 +37,22 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
+/**
+ * 웹훅 전송 (transactional outbox)
+ *
+ * 흐름:
+ *  1. sendWebhookEvent() : 호출 측 트랜잭션 안에서 webhook_outbox 에 이벤트 기록 (커밋돼야 전송됨)
+ *  2. fanOutOutbox()     : 대기 이벤트를 배치로 잠그고(SKIP LOCKED) 구독 웹훅별 webhook_deliveries 생성
+ *  3. dispatchDeliveries(): 전송 대상(대기/재시도 도래/멈춘 SENT)을 배치로 claim → 제한된 동시성으로 HTTP 전송 → 결과 기록
+ *
+ * 모든 단계가 DB 상태만으로 진행되므로 재시작에도 이벤트가 유실되지 않고 (at-least-once),
+ * 메모리에는 배치 하나만 올라가며, 여러 인스턴스가 동시에 돌아도 같은 행을 처리하지 않는다.
+ * 수신 측은 X-Delivery-ID 로 중복을 걸러야 한다.
+ *
+ * fan-out / 전송은 전용 스케줄러(스레드 2개)에서 실행:
+ * 전송은 HTTP 응답을 최대 30초 기다리므로 공용 @Scheduled 스레드(크롤링, 검색 색인 등)를 막지 않도록 분리
+ * (정리 작업 purgeProcessedOutbox 만 공용 스케줄러 사용)
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -36,120 +60,224 @@ public class WebhookDeliveryService {
     
     private final WebhookDeliveryRepository deliveryRepository;
     private final WebhookRepository webhookRepository;
+    private final WebhookOutboxRepository outboxRepository;
     private final WebClient.Builder webClientBuilder;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
     
     private static final String SIGNATURE_HEADER = "X-Webhook-Signature";
     private static final String EVENT_TYPE_HEADER = "X-Event-Type";
     private static final String EVENT_ID_HEADER = "X-Event-ID";
     private static final String DELIVERY_ID_HEADER = "X-Delivery-ID";
     
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final ThreadPoolTaskScheduler webhookScheduler = new ThreadPoolTaskScheduler();
+    
+    @Value("${webhooks.outbox.poll-interval-ms:1000}")   // fan-out 주기
+    private long outboxPollIntervalMs;
+    
+    @Value("${webhooks.dispatch.poll-interval-ms:1000}") // 전송 주기
+    private long dispatchPollIntervalMs;
+    
+    @Value("${webhooks.outbox.batch-size:100}")          // fan-out 1회 이벤트 수
+    private int outboxBatchSize;
+    
+    @Value("${webhooks.outbox.retention-days:7}")        // 처리 완료 이벤트 보존 기간
+    private int outboxRetentionDays;
+    
+    @Value("${webhooks.dispatch.batch-size:50}")         // 전송 1회 claim 수
+    private int dispatchBatchSize;
+    
+    @Value("${webhooks.dispatch.concurrency:10}")        // 동시 HTTP 요청 수
+    private int dispatchConcurrency;
+    
+    @Value("${webhooks.dispatch.stale-seconds:120}")     // SENT 상태로 이 시간 이상 멈추면 재전송 (요청 타임아웃보다 길게)
+    private long staleSeconds;
+    
     /**
-     * 웹훅 이벤트 전송 (비동기)
+     * fan-out / 전송 루프 시작 (각각 고정 지연, 스레드 하나씩 → 서로도 막지 않음)
+     */
+    @PostConstruct
+    public void startWorkers() {
+        webhookScheduler.setPoolSize(2);
+        webhookScheduler.setThreadNamePrefix("webhook-");
+        webhookScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        webhookScheduler.setAwaitTerminationSeconds((int) REQUEST_TIMEOUT.toSeconds());
+        webhookScheduler.initialize();
+        // 예외는 스케줄러 기본 핸들러가 로그로 남기고 다음 주기는 계속 실행됨
+        webhookScheduler.scheduleWithFixedDelay(this::fanOutOutbox, Duration.ofMillis(outboxPollIntervalMs));
+        webhookScheduler.scheduleWithFixedDelay(this::dispatchDeliveries, Duration.ofMillis(dispatchPollIntervalMs));
+    }
+    
+    @PreDestroy
+    public void stopWorkers() {
+        // 진행 중인 배치는 마저 기록 (못 끝낸 SENT 건은 stale-seconds 후 재전송)
+        webhookScheduler.shutdown();
+    }
+    
+    /**
+     * 웹훅 이벤트 기록 (호출 측 트랜잭션에 참여, 커밋 후 디스패처가 전송)
      */
-    @Async
     @Transactional
     public void sendWebhookEvent(String eventType, String eventId, Map<String, Object> payload) {
-        log.info("Sending webhook event: type={}, id={}", eventType, eventId);
+        WebhookOutboxEvent event = outboxRepository.save(WebhookOutboxEvent.builder()
+                .eventType(eventType)
+                .eventId(eventId)
+                .payload(payload)
+                .build());
         
-        // 해당 이벤트를 구독하는 모든 활성화된 웹훅 조회
-        List<Webhook> webhooks = webhookRepository.findActiveWebhooksForEvent(eventType);
-        
-        if (webhooks.isEmpty()) {
-            log.debug("No active webhooks found for event type: {}", eventType);
-            return;
+        log.info("Webhook event queued: type={}, id={}, outboxId={}", eventType, eventId, event.getId());
+    }
+    
+    /**
+     * outbox → webhook_deliveries fan-out (전용 스케줄러)
+     * 배치마다 한 트랜잭션: 전송 레코드 생성과 processed 표시가 함께 커밋됨
+     */
+    public void fanOutOutbox() {
+        Integer processed;
+        do {
+            processed = transactionTemplate.execute(status -> fanOutBatch());
+        } while (processed != null && processed >= outboxBatchSize);
+    }
+    
+    private int fanOutBatch() {
+        List<WebhookOutboxEvent> events = outboxRepository.lockUnprocessed(outboxBatchSize);
+        if (events.isEmpty()) {
+            return 0;
         }
         
-        log.info("Found {} active webhooks for event type: {}", webhooks.size(), eventType);
+        // 배치 안에서는 이벤트 타입별 구독 웹훅을 한 번만 조회
+        Map<String, List<Webhook>> subscribers = new HashMap<>();
+        List<WebhookDelivery> deliveries = new ArrayList<>();
         
-        for (Webhook webhook : webhooks) {
-            createAndSendDelivery(webhook, eventType, eventId, payload);
+        for (WebhookOutboxEvent event : events) {
+            List<Webhook> webhooks = subscribers.computeIfAbsent(
+                    event.getEventType(), webhookRepository::findActiveWebhooksForEvent);
+            
+            for (Webhook webhook : webhooks) {
+                deliveries.add(WebhookDelivery.builder()
+                        .webhook(webhook)
+                        .eventType(event.getEventType())
+                        .eventId(event.getEventId())
+                        .requestUrl(webhook.getUrl())
+                        .requestMethod("POST")
+                        .requestBody(event.getPayload())
+                        .maxRetries(webhook.getMaxRetries())
+                        .build());
+            }
+            event.markAsProcessed();
         }
+        
+        deliveryRepository.saveAll(deliveries);
+        log.info("Fanned out {} webhook events into {} deliveries", events.size(), deliveries.size());
+        return events.size();
     }
     
     /**
-     * 웹훅 전송 생성 및 전송
+     * 전송 대상 claim 후 HTTP 전송 (전용 스케줄러)
      */
-    private void createAndSendDelivery(Webhook webhook, String eventType, String eventId, Map<String, Object> payload) {
-        try {
-            // 전송 레코드 생성
-            WebhookDelivery delivery = WebhookDelivery.builder()
-                    .webhook(webhook)
-                    .eventType(eventType)
-                    .eventId(eventId)
-                    .requestUrl(webhook.getUrl())
-                    .requestMethod("POST")
-                    .requestBody(payload)
-                    .maxRetries(webhook.getMaxRetries())
-                    .build();
+    public void dispatchDeliveries() {
+        List<DeliveryJob> jobs;
+        do {
+            jobs = claimJobs();
+            if (jobs.isEmpty()) {
+                return;
+            }
             
-            delivery = deliveryRepository.save(delivery);
+            log.info("Dispatching {} webhook deliveries", jobs.size());
             
-            // 비동기로 실제 전송 수행
-            sendDelivery(delivery, webhook);
+            List<DeliveryResult> results = Flux.fromIterable(jobs)
+                    .flatMap(this::deliver, dispatchConcurrency)
+                    .collectList()
+                    .block();
             
-        } catch (Exception e) {
-            log.error("Failed to create webhook delivery: webhook={}, event={}", 
-                    webhook.getId(), eventType, e);
-        }
+            if (results != null) {
+                results.forEach(this::recordResult);
+            }
+        } while (jobs.size() >= dispatchBatchSize);
+    }
+    
+    private List<DeliveryJob> claimJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        List<DeliveryJob> jobs = transactionTemplate.execute(status ->
+                deliveryRepository.claimDue(dispatchBatchSize, now, now.minusSeconds(staleSeconds)).stream()
+                        .map(DeliveryJob::from)
+                        .toList());
+        return jobs != null ? jobs : List.of();
     }
     
     /**
-     * 웹훅 전송 실행
+     * 웹훅 전송 실행 (실패도 결과로 반환)
      */
-    private void sendDelivery(WebhookDelivery delivery, Webhook webhook) {
-        long startTime = System.currentTimeMillis();
+    private Mono<DeliveryResult> deliver(DeliveryJob job) {
+        if (!job.active()) {
+            return Mono.just(DeliveryResult.failure(job, Map.of(), new IllegalStateException("Webhook deactivated"), false));
+        }
         
-        try {
-            delivery.markAsSent();
-            deliveryRepository.save(delivery);
-            
-            // 페이로드 준비
-            Map<String, Object> fullPayload = buildPayload(delivery);
-            String payloadJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(fullPayload);
+        return Mono.defer(() -> {
+            long startTime = System.currentTimeMillis();
             
-            // HMAC 서명 생성
-            String signature = generateSignature(payloadJson, webhook.getSecretKey());
+            // 페이로드 준비 (서명한 문자열 그대로 전송)
+            Map<String, Object> fullPayload = buildPayload(job);
+            String payloadJson;
+            try {
+                payloadJson = objectMapper.writeValueAsString(fullPayload);
+            } catch (JsonProcessingException e) {
+                return Mono.just(DeliveryResult.failure(job, Map.of(), e, false));
+            }
             
             // HTTP 헤더 구성
             Map<String, String> headers = new HashMap<>();
-            headers.put(SIGNATURE_HEADER, signature);
-            headers.put(EVENT_TYPE_HEADER, delivery.getEventType());
-            headers.put(EVENT_ID_HEADER, delivery.getEventId() != null ? delivery.getEventId() : "");
-            headers.put(DELIVERY_ID_HEADER, delivery.getId().toString());
-            
-            delivery.setRequestHeaders(headers);
-            
-            // WebClient로 전송
-            WebClient webClient = webClientBuilder.build();
+            headers.put(SIGNATURE_HEADER, generateSignature(payloadJson, job.secretKey()));
+            headers.put(EVENT_TYPE_HEADER, job.eventType());
+            headers.put(EVENT_ID_HEADER, job.eventId() != null ? job.eventId() : "");
+            headers.put(DELIVERY_ID_HEADER, job.deliveryId().toString());
             
-            webClient.post()
-                    .uri(webhook.getUrl())
+            return webClientBuilder.build()
+                    .post()
+                    .uri(job.url())
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                     .headers(httpHeaders -> headers.forEach(httpHeaders::set))
-                    .bodyValue(fullPayload)
+                    .bodyValue(payloadJson)
                     .retrieve()
                     .toBodilessEntity()
-                    .timeout(Duration.ofSeconds(30))
-                    .doOnSuccess(response -> {
-                        int responseTime = (int) (System.currentTimeMillis() - startTime);
-                        handleSuccess(delivery, webhook, response.getStatusCode().value(), responseTime);
-                    })
-                    .doOnError(error -> {
-                        handleError(delivery, webhook, error);
-                    })
-                    .subscribe();
-                    
+                    .timeout(REQUEST_TIMEOUT)
+                    .map(response -> DeliveryResult.success(job, headers,
+                            response.getStatusCode().value(), (int) (System.currentTimeMillis() - startTime)))
+                    .onErrorResume(error -> Mono.just(DeliveryResult.failure(job, headers, error, true)));
+        });
+    }
+    
+    /**
+     * 전송 결과 기록 (전송 건마다 별도 트랜잭션)
+     */
+    private void recordResult(DeliveryResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                WebhookDelivery delivery = deliveryRepository.findById(result.job().deliveryId()).orElse(null);
+                if (delivery == null) {
+                    return; // 웹훅 삭제로 함께 삭제됨
+                }
+                Webhook webhook = delivery.getWebhook();
+                delivery.setRequestHeaders(result.headers());
+                
+                if (result.error() == null) {
+                    handleSuccess(delivery, webhook, result.statusCode(), result.responseTimeMs());
+                } else {
+                    handleError(delivery, webhook, result.error(), result.retryable());
+                }
+            });
         } catch (Exception e) {
-            log.error("Failed to send webhook delivery: id={}", delivery.getId(), e);
-            handleError(delivery, webhook, e);
+            // SENT 상태로 남음 → stale-seconds 후 다시 전송됨
+            log.error("Failed to record webhook delivery result: id={}", result.job().deliveryId(), e);
         }
     }
     
     /**
      * 전송 성공 처리
      */
-    @Transactional
-    protected void handleSuccess(WebhookDelivery delivery, Webhook webhook, int statusCode, int responseTime) {
+    private void handleSuccess(WebhookDelivery delivery, Webhook webhook, int statusCode, int responseTime) {
         log.info("Webhook delivery successful: id={}, status={}, time={}ms", 
                 delivery.getId(), statusCode, responseTime);
         
@@ -166,8 +294,7 @@ public class WebhookDeliveryService {
     /**
      * 전송 실패 처리
      */
-    @Transactional
-    protected void handleError(WebhookDelivery delivery, Webhook webhook, Throwable error) {
+    private void handleError(WebhookDelivery delivery, Webhook webhook, Throwable error, boolean retryable) {
         String errorMessage = error.getMessage();
         int statusCode = 0;
         
@@ -179,16 +306,16 @@ public class WebhookDeliveryService {
         
         log.warn("Webhook delivery failed: id={}, error={}", delivery.getId(), errorMessage);
         
-        delivery.setResponseStatus(statusCode);
+        delivery.setResponseStatus(statusCode > 0 ? statusCode : null);
         delivery.setErrorMessage(errorMessage);
         
         // 재시도 가능 여부 확인
-        if (delivery.canRetry()) {
+        if (retryable && delivery.canRetry()) {
             log.info("Scheduling retry for delivery: id={}, attempt={}/{}", 
                     delivery.getId(), delivery.getRetryCount() + 1, delivery.getMaxRetries());
             delivery.markAsFailedWithRetry(errorMessage, webhook.getRetryDelaySeconds());
         } else {
-            log.warn("Max retries exceeded for delivery: id={}", delivery.getId());
+            log.warn("Giving up on delivery: id={}", delivery.getId());
             delivery.markAsPermanentlyFailed(errorMessage);
         }
         
@@ -202,29 +329,13 @@ public class WebhookDeliveryService {
     }
     
     /**
-     * 재시도 대기 중인 전송 처리 (스케줄러)
+     * 처리 완료된 outbox 이벤트 정리 (스케줄러)
      */
-    @Scheduled(fixedDelay = 60000) // 1분마다 실행
-    @Transactional
-    public void processRetries() {
-        LocalDateTime now = LocalDateTime.now();
-        List<WebhookDelivery> retriesReady = deliveryRepository.findPendingRetries(
-                DeliveryStatus.RETRYING, now);
-        
-        if (!retriesReady.isEmpty()) {
-            log.info("Processing {} webhook retries", retriesReady.size());
-            
-            for (WebhookDelivery delivery : retriesReady) {
-                Webhook webhook = delivery.getWebhook();
-                if (webhook.getIsActive()) {
-                    sendDelivery(delivery, webhook);
-                } else {
-                    log.warn("Skipping retry for inactive webhook: id={}", webhook.getId());
-                    delivery.markAsPermanentlyFailed("Webhook deactivated");
-                    deliveryRepository.save(delivery);
-                }
-            }
-        }
+    @Scheduled(cron = "${webhooks.outbox.cleanup-cron:0 30 4 * * *}")
+    public void purgeProcessedOutbox() {
+        LocalDateTime before = LocalDateTime.now().minusDays(outboxRetentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteProcessedBefore(before));
+        log.info("Purged {} processed webhook outbox events older than {}", deleted, before);
     }
     
     /**
@@ -267,13 +378,13 @@ public class WebhookDeliveryService {
     /**
      * 페이로드 구성
      */
-    private Map<String, Object> buildPayload(WebhookDelivery delivery) {
+    private Map<String, Object> buildPayload(DeliveryJob job) {
         Map<String, Object> payload = new HashMap<>();
-        payload.put("event_type", delivery.getEventType());
-        payload.put("event_id", delivery.getEventId());
-        payload.put("delivery_id", delivery.getId());
+        payload.put("event_type", job.eventType());
+        payload.put("event_id", job.eventId());
+        payload.put("delivery_id", job.deliveryId());
         payload.put("timestamp", LocalDateTime.now().toString());
-        payload.put("data", delivery.getRequestBody());
+        payload.put("data", job.requestBody());
         
         return payload;
     }
@@ -296,4 +407,47 @@ public class WebhookDeliveryService {
             throw new RuntimeException("Failed to generate signature", e);
         }
     }
+    
+    /*
+     * claim 트랜잭션 안에서 뽑아둔 전송 정보 (HTTP 전송 중에는 영속성 컨텍스트를 잡지 않음)
+     */
+    private record DeliveryJob(
+            Long deliveryId,
+            String eventType,
+            String eventId,
+            Map<String, Object> requestBody,
+            String url,
+            String secretKey,
+            boolean active
+    ) {
+        static DeliveryJob from(WebhookDelivery delivery) {
+            Webhook webhook = delivery.getWebhook();
+            return new DeliveryJob(
+                    delivery.getId(),
+                    delivery.getEventType(),
+                    delivery.getEventId(),
+                    delivery.getRequestBody(),
+                    webhook.getUrl(),
+                    webhook.getSecretKey(),
+                    Boolean.TRUE.equals(webhook.getIsActive())
+            );
+        }
+    }
+    
+    private record DeliveryResult(
+            DeliveryJob job,
+            Map<String, String> headers,
+            int statusCode,
+            int responseTimeMs,
+            Throwable error,
+            boolean retryable
+    ) {
+        static DeliveryResult success(DeliveryJob job, Map<String, String> headers, int statusCode, int responseTimeMs) {
+            return new DeliveryResult(job, headers, statusCode, responseTimeMs, null, false);
+        }
+        
+        static DeliveryResult failure(DeliveryJob job, Map<String, String> headers, Throwable error, boolean retryable) {
+            return new DeliveryResult(job, headers, 0, 0, error, retryable);
+        }
+    }
 }
@@ -0,0 +1,19 @@
+-- 코믹 좋아요 테이블 (사용자당 코믹 1회)
+CREATE TABLE comic_likes (
+    id BIGSERIAL PRIMARY KEY,
+    user_uid VARCHAR(255) NOT NULL,
+    comic_id BIGINT NOT NULL,
+    liked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_uid) REFERENCES users(uid) ON DELETE CASCADE,
+    FOREIGN KEY (comic_id) REFERENCES comics(id) ON DELETE CASCADE,
+    UNIQUE (user_uid, comic_id)
+);
+
+-- 인덱스 생성 (UNIQUE (user_uid, comic_id) 가 사용자별 조회를 커버)
+CREATE INDEX idx_comic_likes_comic_id ON comic_likes(comic_id);
+
+-- 코멘트 추가
+COMMENT ON TABLE comic_likes IS '사용자별 코믹 좋아요 (comics.likes 는 이 테이블 기준으로 증감)';
+COMMENT ON COLUMN comic_likes.user_uid IS '사용자 UID';
+COMMENT ON COLUMN comic_likes.comic_id IS '코믹 ID';
+COMMENT ON COLUMN comic_likes.liked_at IS '좋아요 시각';
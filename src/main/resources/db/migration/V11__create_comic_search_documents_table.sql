@@ -0,0 +1,22 @@
+-- 코믹 전문 검색 문서 테이블
+-- repo_name(A) / key_insights(B) / 리포 description(C) / README(D) 를 가중치별로 합친 tsvector
+-- git_repositories 는 Hibernate 가 생성하므로 트리거 대신 ComicSearchService 가 주기적으로 증분 갱신
+-- 한/영 혼용 텍스트라 형태소 분석 없이 'simple' 설정 사용
+
+CREATE TABLE comic_search_documents (
+    comic_id BIGINT PRIMARY KEY,
+    document TSVECTOR NOT NULL,
+
+    -- 마지막 색인 시각 (comics.updated_at / README 수집 시각보다 이전이면 재색인 대상)
+    indexed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (comic_id) REFERENCES comics(id) ON DELETE CASCADE
+);
+
+-- 인덱스 생성
+CREATE INDEX idx_comic_search_documents_document ON comic_search_documents USING GIN(document);
+
+-- 코멘트 추가
+COMMENT ON TABLE comic_search_documents IS '코믹 전문 검색용 tsvector (주기적 증분 갱신)';
+COMMENT ON COLUMN comic_search_documents.document IS 'repo_name(A) + key_insights(B) + description(C) + README(D)';
+COMMENT ON COLUMN comic_search_documents.indexed_at IS '마지막 색인 시각';
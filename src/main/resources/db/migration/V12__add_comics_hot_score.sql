@@ -0,0 +1,22 @@
+-- 코믹 인기(hot) 점수 컬럼
+-- hot_score = log2( Σ 가중치 × 2^((이벤트 시각 - 2024-01-01) / 24시간) )
+--   → 모든 코믹에 공통인 2^(-현재/24시간) 을 곱한 값이 "반감기 24시간으로 감쇠된 참여도 합" 이므로
+--     hot_score 순서 = 현재 시점의 감쇠 점수 순서 (시간이 지나도 재계산 불필요, 이벤트 때만 증분 갱신)
+-- 생성 시점 자체를 가중치 1 이벤트로 보고 시작 (새 코믹이 참여 없이도 오래된 코믹보다 위)
+-- 반감기/기준 시각은 ComicCounterService 의 HOT_* 상수와 같아야 함
+
+ALTER TABLE comics
+    ADD COLUMN hot_score DOUBLE PRECISION NOT NULL
+        DEFAULT ((EXTRACT(EPOCH FROM LOCALTIMESTAMP) - 1704067200) / 86400.0);
+
+-- 기존 코믹 백필: 생성 시각 기준 + 지금까지의 좋아요(1)/공유(2)/저장(3) 을 생성 시점 이벤트로 근사
+UPDATE comics c
+SET hot_score = (EXTRACT(EPOCH FROM c.created_at) - 1704067200) / 86400.0
+              + LN(1 + COALESCE(c.likes, 0) + 2 * COALESCE(c.shares, 0)
+                     + 3 * (SELECT COUNT(*) FROM saved_comics sc WHERE sc.comic_id = c.id)) / LN(2);
+
+-- sortBy=hot 커서 페이지네이션용 (정렬 키 + id)
+CREATE INDEX idx_comics_hot_score_id ON comics(hot_score DESC, id DESC);
+
+-- 코멘트 추가
+COMMENT ON COLUMN comics.hot_score IS '시간 감쇠 인기 점수 (log2 스케일, 반감기 24시간, 이벤트 시 증분 갱신)';
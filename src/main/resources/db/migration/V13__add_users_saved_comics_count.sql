@@ -0,0 +1,32 @@
+-- 사용자별 저장한 코믹 수 (비정규화 카운터)
+-- 프로필 조회 시 COUNT(*) 대신 사용, saved_comics 트리거로 유지
+-- (코믹 삭제로 인한 ON DELETE CASCADE 도 트리거로 반영됨)
+
+ALTER TABLE users ADD COLUMN saved_comics_count INTEGER NOT NULL DEFAULT 0;
+
+-- 기존 데이터 백필
+UPDATE users u
+SET saved_comics_count = s.cnt
+FROM (SELECT user_uid, COUNT(*) AS cnt FROM saved_comics GROUP BY user_uid) s
+WHERE s.user_uid = u.uid;
+
+-- saved_comics insert/delete 시 카운터 증감
+CREATE OR REPLACE FUNCTION update_users_saved_comics_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE users SET saved_comics_count = saved_comics_count + 1 WHERE uid = NEW.user_uid;
+    ELSE
+        UPDATE users SET saved_comics_count = saved_comics_count - 1 WHERE uid = OLD.user_uid;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER update_saved_comics_count
+    AFTER INSERT OR DELETE ON saved_comics
+    FOR EACH ROW
+    EXECUTE FUNCTION update_users_saved_comics_count();
+
+-- 코멘트 추가
+COMMENT ON COLUMN users.saved_comics_count IS '저장한 코믹 수 (saved_comics 트리거로 유지)';
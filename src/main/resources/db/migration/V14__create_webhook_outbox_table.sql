@@ -0,0 +1,44 @@
+-- Webhook Outbox 테이블
+-- 이벤트 발생 트랜잭션 안에서 기록 → 커밋된 이벤트만 디스패처가 가져가 webhook_deliveries 로 fan-out
+-- 디스패처는 FOR UPDATE SKIP LOCKED 로 배치를 가져가므로 여러 인스턴스가 동시에 돌아도 중복 처리 없음
+
+CREATE TABLE webhook_outbox (
+    id BIGSERIAL PRIMARY KEY,
+
+    -- 이벤트 정보
+    event_type VARCHAR(100) NOT NULL,
+    event_id VARCHAR(255),
+    payload JSONB NOT NULL,
+
+    -- 타임스탬프
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP -- fan-out 완료 시각 (NULL 이면 대기 중)
+);
+
+-- 대기 중인 이벤트 (id 순 배치 조회)
+CREATE INDEX idx_webhook_outbox_unprocessed ON webhook_outbox(id) WHERE processed_at IS NULL;
+
+-- 처리 완료 이벤트 정리용
+CREATE INDEX idx_webhook_outbox_processed_at ON webhook_outbox(processed_at) WHERE processed_at IS NOT NULL;
+
+-- webhook_deliveries.status 는 enum 이름(대문자)으로 저장되므로 제약 조건/부분 인덱스를 맞춤
+UPDATE webhook_deliveries SET status = UPPER(status) WHERE status <> UPPER(status);
+
+ALTER TABLE webhook_deliveries DROP CONSTRAINT valid_status;
+ALTER TABLE webhook_deliveries ADD CONSTRAINT valid_status
+    CHECK (status IN ('PENDING', 'SENT', 'SUCCESS', 'FAILED', 'RETRYING'));
+
+DROP INDEX IF EXISTS idx_webhook_deliveries_next_retry;
+DROP INDEX IF EXISTS idx_webhook_deliveries_pending;
+
+-- 전송 대상 (대기 / 재시도 시각 도래)
+CREATE INDEX idx_webhook_deliveries_due ON webhook_deliveries(id, next_retry_at)
+    WHERE status IN ('PENDING', 'RETRYING');
+
+-- 전송 중(SENT) 상태로 멈춘 건 재회수용 (인스턴스 종료 등)
+CREATE INDEX idx_webhook_deliveries_in_flight ON webhook_deliveries(sent_at)
+    WHERE status = 'SENT';
+
+-- 코멘트 추가
+COMMENT ON TABLE webhook_outbox IS '웹훅 이벤트 outbox (이벤트 트랜잭션과 함께 커밋, 디스패처가 배치로 fan-out)';
+COMMENT ON COLUMN webhook_outbox.processed_at IS 'fan-out 완료 시각 (NULL 이면 대기 중)';
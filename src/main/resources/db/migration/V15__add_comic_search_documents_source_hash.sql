@@ -0,0 +1,12 @@
+-- 코믹 검색 문서 재색인 기준을 "내용 해시" 로 변경
+-- comics.updated_at 은 좋아요/공유/저장 카운터 flush 때마다, git_repositories.readme_fetched_at 은
+-- 304/404 재확인 때마다 갱신되어 내용이 그대로인데도 재색인이 반복됨
+-- → 색인에 쓰인 원본(repo_name, key_insights, description, README sha) 의 해시를 저장하고 달라졌을 때만 재색인
+-- 기존 문서는 NULL 로 두어 배포 후 한 번씩 재색인되도록 함
+
+ALTER TABLE comic_search_documents
+    ADD COLUMN source_hash TEXT;
+
+-- 코멘트 추가
+COMMENT ON COLUMN comic_search_documents.source_hash IS '색인 원본 내용 해시 (md5, 다르면 재색인 대상)';
+COMMENT ON COLUMN comic_search_documents.indexed_at IS '마지막 색인 시각 (재색인 판단에는 사용하지 않음)';
@@ -0,0 +1,18 @@
+-- 피드 정렬/카운터 컬럼 NOT NULL 화
+-- stars / likes 는 커서(keyset) 정렬 키인데 NULL 이면
+--   · nextCursor 에 "null" 이 들어가 다음 요청이 INVALID_REQUEST 로 거절되고
+--   · DESC 정렬에서 NULL 이 맨 앞에 오며 (key, id) < (?, ?) 비교가 NULL 행을 건너뜀
+-- shares 도 카운터 flush 의 상대 갱신(shares + ?) 이 NULL 에서 멈추지 않도록 함께 처리
+-- hot_score 는 V12 에서 이미 NOT NULL
+
+UPDATE comics SET stars = 0 WHERE stars IS NULL;
+UPDATE comics SET likes = 0 WHERE likes IS NULL;
+UPDATE comics SET shares = 0 WHERE shares IS NULL;
+
+ALTER TABLE comics
+    ALTER COLUMN stars SET DEFAULT 0,
+    ALTER COLUMN stars SET NOT NULL,
+    ALTER COLUMN likes SET DEFAULT 0,
+    ALTER COLUMN likes SET NOT NULL,
+    ALTER COLUMN shares SET DEFAULT 0,
+    ALTER COLUMN shares SET NOT NULL;
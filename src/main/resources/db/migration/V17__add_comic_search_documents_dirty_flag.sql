@@ -0,0 +1,44 @@
+-- 코믹 검색 문서 재색인 대상을 "쓰기 시점 dirty 표시" 로 찾도록 변경
+-- V15 의 해시 비교는 30초마다 모든 코믹의 해시를 다시 계산해 comics ⋈ git_repositories 전체를 훑음
+-- → 원본이 바뀔 때 dirty 를 세우고 (comics: 트리거, git_repositories: GitHubService 가 저장 시 표시)
+--   갱신 작업은 dirty 행만 해시 비교/재색인
+-- git_repositories 는 Hibernate 가 생성하므로 트리거 대신 애플리케이션에서 표시
+
+ALTER TABLE comic_search_documents
+    ADD COLUMN dirty BOOLEAN NOT NULL DEFAULT false;
+
+-- dirty 행만 담는 부분 인덱스 (대부분 false)
+CREATE INDEX idx_comic_search_documents_dirty ON comic_search_documents(comic_id) WHERE dirty;
+
+-- 코믹 생성/내용 변경 시 dirty 표시 (카운터/hot_score 갱신은 제외)
+-- 아직 문서가 없으면 빈 문서로 자리를 만들어 둠 (빈 tsvector 는 어떤 검색에도 걸리지 않음)
+CREATE FUNCTION mark_comic_search_dirty() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO comic_search_documents (comic_id, document, dirty)
+    VALUES (NEW.id, ''::tsvector, true)
+    ON CONFLICT (comic_id) DO UPDATE SET dirty = true;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_comics_search_dirty_insert
+    AFTER INSERT ON comics
+    FOR EACH ROW EXECUTE FUNCTION mark_comic_search_dirty();
+
+CREATE TRIGGER trg_comics_search_dirty_update
+    AFTER UPDATE OF repo_name, key_insights ON comics
+    FOR EACH ROW
+    WHEN (OLD.repo_name IS DISTINCT FROM NEW.repo_name OR OLD.key_insights IS DISTINCT FROM NEW.key_insights)
+    EXECUTE FUNCTION mark_comic_search_dirty();
+
+-- 기존 데이터: 문서가 없는 코믹은 자리 생성, 기존 문서는 배포 후 한 번씩 해시 비교
+INSERT INTO comic_search_documents (comic_id, document, dirty)
+SELECT c.id, ''::tsvector, true
+FROM comics c
+WHERE NOT EXISTS (SELECT 1 FROM comic_search_documents d WHERE d.comic_id = c.id);
+
+UPDATE comic_search_documents SET dirty = true;
+
+-- 코멘트 추가
+COMMENT ON COLUMN comic_search_documents.dirty IS '원본 변경 표시 (true 인 행만 해시 비교 후 재색인)';
+COMMENT ON COLUMN comic_search_documents.source_hash IS '색인 원본 내용 해시 (dirty 행에서만 비교, 같으면 재색인 생략)';
@@ -0,0 +1,21 @@
+-- 리포 스타 수 시계열 테이블
+-- 크롤링마다 (repo_id, 시각, 스타 수)를 append-only 로 저장 → 1d/7d/30d 속도/가속도 계산용
+-- git_repositories 는 Hibernate 가 생성하므로 FK 없이 repo_id 만 보관
+
+CREATE TABLE repo_star_snapshots (
+    repo_id BIGINT NOT NULL,
+
+    -- 수집 시각 (시간 단위로 절삭, 같은 시간대 재수집은 덮어씀)
+    captured_at TIMESTAMPTZ NOT NULL,
+
+    stars INTEGER NOT NULL,
+
+    PRIMARY KEY (repo_id, captured_at)
+);
+
+-- 보존 기간 정리(captured_at 범위 삭제)용, append-only 라 BRIN 으로 충분
+CREATE INDEX idx_repo_star_snapshots_captured_at ON repo_star_snapshots USING BRIN(captured_at);
+
+-- 코멘트 추가
+COMMENT ON TABLE repo_star_snapshots IS 'GitHub 리포 스타 수 시계열 (보존 기간 이후 자동 삭제)';
+COMMENT ON COLUMN repo_star_snapshots.captured_at IS '수집 시각 (시간 단위 절삭)';
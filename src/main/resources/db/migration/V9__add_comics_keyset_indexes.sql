@@ -0,0 +1,18 @@
+-- 코믹 피드 커서(keyset) 페이지네이션용 복합 인덱스
+-- 정렬 키 + id (동점 처리) 순서 그대로 → WHERE (key, id) < (?, ?) ORDER BY key DESC, id DESC LIMIT n 이 인덱스 범위 스캔으로 끝남
+
+CREATE INDEX idx_comics_created_at_id ON comics(created_at DESC, id DESC);
+CREATE INDEX idx_comics_stars_id ON comics(stars DESC, id DESC);
+CREATE INDEX idx_comics_likes_id ON comics(likes DESC, id DESC);
+
+-- /api/comics/new (is_new = true, 최신순)
+CREATE INDEX idx_comics_new_created_at_id ON comics(created_at DESC, id DESC) WHERE is_new = true;
+
+-- /api/comics/language/{language} (언어별 스타순)
+CREATE INDEX idx_comics_language_stars_id ON comics(language, stars DESC, id DESC);
+
+-- 복합 인덱스가 대체하는 단일 컬럼 인덱스 제거
+DROP INDEX IF EXISTS idx_comics_created_at;
+DROP INDEX IF EXISTS idx_comics_stars;
+DROP INDEX IF EXISTS idx_comics_likes;
+DROP INDEX IF EXISTS idx_comics_is_new;
@@ -0,0 +1,267 @@
+package com.trendfeed.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * 실제 FirebaseTokenVerifier + FirebaseSigningKeys 를 로컬 JWKS 서버(JDK HttpServer)에 붙여 검증
+ *  - 로컬 RSA 키로 서명한 RS256 토큰 (kid / aud / iss / sub / iat / exp / auth_time)
+ *  - 캐시 수명, 만료, 모르는 kid, 위조 서명, aud/iss 불일치, 키 교체
+ */
+class FirebaseTokenVerifierTest {
+
+    private static final JsonFactory JSON = GsonFactory.getDefaultInstance();
+    private static final String PROJECT_ID = "trendfeed-test";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+
+    // 스텁 JWKS 가 내보내는 키 (kid → 키쌍)
+    private final Map<String, KeyPair> published = new LinkedHashMap<>();
+
+    private HttpServer server;
+    private FirebaseSigningKeys signingKeys;
+    private KeyPair current;
+    private KeyPair other;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        current = generator.generateKeyPair();
+        other = generator.generateKeyPair();
+        published.put("key-1", current);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/jwks", this::handle);
+        server.start();
+
+        // 주기 갱신 스케줄러는 띄우지 않고 refresh() 를 직접 호출
+        signingKeys = new FirebaseSigningKeys(WebClient.builder(),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/jwks", Duration.ofMinutes(60), clock);
+        assertThat(signingKeys.refresh()).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void verifiesAndCachesValidToken() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+        String idToken = sign(current, "key-1", claims("user-1", Duration.ofMinutes(30)));
+
+        VerifiedIdToken first = verifier.verify(idToken);
+        VerifiedIdToken second = verifier.verify(idToken);
+
+        assertThat(first.uid()).isEqualTo("user-1");
+        assertThat(first.email()).isEqualTo("user-1@example.com");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void entryLifetimeIsCappedByMaxTtl() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(5));
+        String idToken = sign(current, "key-1", claims("user-1", Duration.ofMinutes(60)));
+
+        VerifiedIdToken first = verifier.verify(idToken);
+        clock.advance(Duration.ofMinutes(4));
+        assertThat(verifier.verify(idToken)).isSameAs(first);
+
+        clock.advance(Duration.ofMinutes(2));
+        VerifiedIdToken reverified = verifier.verify(idToken);
+        assertThat(reverified).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void rejectsTokenAfterExpiryEvenIfCached() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+        String idToken = sign(current, "key-1", claims("user-1", Duration.ofMinutes(2)));
+
+        verifier.verify(idToken);
+        clock.advance(Duration.ofMinutes(3));
+
+        assertRejected(verifier, idToken, AuthErrorCode.EXPIRED_ID_TOKEN);
+    }
+
+    @Test
+    void rejectsUnknownKid() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+        String idToken = sign(current, "key-unknown", claims("user-1", Duration.ofMinutes(30)));
+
+        assertRejected(verifier, idToken, AuthErrorCode.INVALID_ID_TOKEN);
+    }
+
+    @Test
+    void rejectsSignatureFromAnotherKey() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+        // kid 는 맞지만 다른 개인키로 서명
+        String forged = sign(other, "key-1", claims("user-1", Duration.ofMinutes(30)));
+
+        assertRejected(verifier, forged, AuthErrorCode.INVALID_ID_TOKEN);
+    }
+
+    @Test
+    void rejectsWrongAudienceOrIssuer() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+
+        JsonWebToken.Payload wrongAudience = claims("user-1", Duration.ofMinutes(30)).setAudience("another-project");
+        JsonWebToken.Payload wrongIssuer = claims("user-1", Duration.ofMinutes(30))
+                .setIssuer("https://securetoken.google.com/another-project");
+
+        assertRejected(verifier, sign(current, "key-1", wrongAudience), AuthErrorCode.INVALID_ID_TOKEN);
+        assertRejected(verifier, sign(current, "key-1", wrongIssuer), AuthErrorCode.INVALID_ID_TOKEN);
+    }
+
+    @Test
+    void rejectsTokenIssuedInTheFuture() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+        long future = clock.instant().plus(Duration.ofMinutes(10)).getEpochSecond();
+        JsonWebToken.Payload payload = claims("user-1", Duration.ofMinutes(30)).setIssuedAtTimeSeconds(future);
+
+        assertRejected(verifier, sign(current, "key-1", payload), AuthErrorCode.INVALID_ID_TOKEN);
+    }
+
+    @Test
+    void acceptsRotatedKeyAfterRefreshBecauseFailuresAreNotCached() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+        String idToken = sign(other, "key-2", claims("user-1", Duration.ofMinutes(30)));
+
+        assertRejected(verifier, idToken, AuthErrorCode.INVALID_ID_TOKEN);
+
+        published.put("key-2", other);
+        assertThat(signingKeys.refresh()).isTrue();
+
+        assertThat(verifier.verify(idToken).uid()).isEqualTo("user-1");
+    }
+
+    @Test
+    void keepsPreviousKeysWhenRefreshFails() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Duration.ofMinutes(60));
+        server.removeContext("/jwks");
+
+        assertThat(signingKeys.refresh()).isFalse();
+        assertThat(verifier.verify(sign(current, "key-1", claims("user-1", Duration.ofMinutes(30)))).uid())
+                .isEqualTo("user-1");
+        assertThat(jwksRequests).hasValue(1);
+    }
+
+    private FirebaseTokenVerifier verifier(Duration maxTtl) {
+        return new FirebaseTokenVerifier(signingKeys, PROJECT_ID, 100, maxTtl, clock);
+    }
+
+    private static void assertRejected(FirebaseTokenVerifier verifier, String idToken, AuthErrorCode code) {
+        assertThatThrownBy(() -> verifier.verify(idToken))
+                .isInstanceOfSatisfying(FirebaseAuthException.class,
+                        e -> assertThat(e.getAuthErrorCode()).isEqualTo(code));
+    }
+
+    private JsonWebToken.Payload claims(String uid, Duration validFor) {
+        long now = clock.instant().getEpochSecond();
+        JsonWebToken.Payload payload = new JsonWebToken.Payload()
+                .setSubject(uid)
+                .setAudience(PROJECT_ID)
+                .setIssuer("https://securetoken.google.com/" + PROJECT_ID)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + validFor.toSeconds());
+        payload.set("auth_time", now);
+        payload.set("email", uid + "@example.com");
+        return payload;
+    }
+
+    private static String sign(KeyPair keys, String kid, JsonWebToken.Payload payload)
+            throws GeneralSecurityException, IOException {
+        JsonWebSignature.Header header = new JsonWebSignature.Header()
+                .setAlgorithm("RS256")
+                .setType("JWT")
+                .setKeyId(kid);
+        return JsonWebSignature.signUsingRsaSha256(keys.getPrivate(), JSON, header, payload);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        jwksRequests.incrementAndGet();
+        List<Map<String, Object>> keys = new ArrayList<>();
+        published.forEach((kid, pair) -> {
+            RSAPublicKey key = (RSAPublicKey) pair.getPublic();
+            keys.add(Map.of("kty", "RSA", "alg", "RS256", "use", "sig", "kid", kid,
+                    "n", base64Url(key.getModulus()), "e", base64Url(key.getPublicExponent())));
+        });
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("keys", keys));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
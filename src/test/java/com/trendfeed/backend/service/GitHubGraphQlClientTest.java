@@ -0,0 +1,263 @@
+package com.trendfeed.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * GitHubGraphQlClient 를 로컬 스텁 GraphQL 서버(JDK HttpServer)에 붙여 검증
+ *  - 배치 분할, 삭제된 리포(null 노드), 부분 errors, README oid 비교, 실패/레이트리밋 처리
+ */
+class GitHubGraphQlClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 스텁 상태: node id → 리포 노드 (없으면 삭제된 리포 → null + NOT_FOUND)
+    private final Map<String, Map<String, Object>> repos = new HashMap<>();
+    private final Queue<Map<String, Object>> requests = new ConcurrentLinkedQueue<>();
+    // 다음 응답들을 강제로 지정 (상태 코드, 본문)
+    private final Queue<Object[]> scripted = new ConcurrentLinkedQueue<>();
+
+    private HttpServer server;
+    private GitHubGraphQlClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql", this::handle);
+        server.start();
+
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+        client = new GitHubGraphQlClient(webClient, new GitHubRateLimiter());
+        ReflectionTestUtils.setField(client, "graphqlPath", "/graphql");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void splitsKnownReposIntoBatches() {
+        List<GitHubGraphQlClient.KnownRepo> known = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            repos.put("N" + i, repo(i, null));
+            known.add(new GitHubGraphQlClient.KnownRepo("N" + i, null));
+        }
+
+        List<GitHubGraphQlClient.BatchResult> results = client.fetchBatches(known, 2, 2).collectList().block();
+
+        assertThat(results).hasSize(3);
+        assertThat(results).extracting(GitHubGraphQlClient.BatchResult::requested).containsExactlyInAnyOrder(2, 2, 1);
+        assertThat(results).noneMatch(GitHubGraphQlClient.BatchResult::failed);
+        assertThat(metaRequests()).hasSize(3).allSatisfy(ids -> assertThat(ids).hasSizeLessThanOrEqualTo(2));
+        assertThat(results.stream().mapToInt(r -> r.repositories().size()).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void fetchesReadmeTextOnlyForChangedOids() {
+        repos.put("N1", repo(1, "oid-same"));
+        repos.put("N2", repo(2, "oid-new"));
+        repos.put("N3", repo(3, "oid-first"));
+        repos.put("N4", repo(4, null));
+        List<GitHubGraphQlClient.KnownRepo> known = List.of(
+                new GitHubGraphQlClient.KnownRepo("N1", "oid-same"),
+                new GitHubGraphQlClient.KnownRepo("N2", "oid-old"),
+                new GitHubGraphQlClient.KnownRepo("N3", null),
+                new GitHubGraphQlClient.KnownRepo("N4", null));
+
+        GitHubGraphQlClient.BatchResult result = client.fetchBatches(known, 10, 1).blockFirst();
+
+        assertThat(textRequests()).singleElement().satisfies(ids -> assertThat(ids).containsExactlyInAnyOrder("N2", "N3"));
+        assertThat(result.readmeTexts()).containsOnlyKeys("N2", "N3");
+        assertThat(result.readmeTexts().get("N2").text()).isEqualTo("readme of owner/repo2");
+        assertThat(result.repositories())
+                .filteredOn(repo -> repo.nodeId().equals("N4"))
+                .singleElement()
+                .satisfies(repo -> assertThat(repo.readme()).isNull());
+    }
+
+    @Test
+    void deletedReposComeBackAsNullNodesWithPartialErrors() {
+        repos.put("N1", repo(1, "oid-1"));
+        List<GitHubGraphQlClient.KnownRepo> known = List.of(
+                new GitHubGraphQlClient.KnownRepo("N1", "oid-1"),
+                new GitHubGraphQlClient.KnownRepo("GONE", "oid-x"));
+
+        GitHubGraphQlClient.BatchResult result = client.fetchBatches(known, 10, 1).blockFirst();
+
+        assertThat(result.failed()).isFalse();
+        assertThat(result.repositories()).extracting(GitHubGraphQlClient.GraphQlRepository::nodeId).containsExactly("N1");
+        assertThat(result.repositories().get(0).meta())
+                .containsEntry("id", 1)
+                .containsEntry("full_name", "owner/repo1")
+                .containsEntry("language", "Java");
+        assertThat(result.missing()).isEqualTo(1);
+    }
+
+    @Test
+    void requestWithoutDataFailsTheBatchInsteadOfLookingEmpty() {
+        repos.put("N1", repo(1, null));
+        scripted.add(new Object[]{200, Map.of("errors", List.of(Map.of("message", "Bad credentials")))});
+
+        GitHubGraphQlClient.BatchResult result = client
+                .fetchBatches(List.of(new GitHubGraphQlClient.KnownRepo("N1", null)), 10, 1)
+                .blockFirst();
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.missing()).isZero();
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void unauthorizedIsNotRetried() {
+        repos.put("N1", repo(1, null));
+        scripted.add(new Object[]{401, Map.of("message", "Bad credentials")});
+
+        GitHubGraphQlClient.BatchResult result = client
+                .fetchBatches(List.of(new GitHubGraphQlClient.KnownRepo("N1", null)), 10, 1)
+                .blockFirst();
+
+        assertThat(result.failed()).isTrue();
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void rateLimitedResponsesAreRetried() {
+        repos.put("N1", repo(1, null));
+        scripted.add(new Object[]{429, Map.of("message", "secondary rate limit")});
+        scripted.add(new Object[]{200, Map.of("errors", List.of(Map.of("type", "RATE_LIMITED", "message", "limit")))});
+
+        GitHubGraphQlClient.BatchResult result = client
+                .fetchBatches(List.of(new GitHubGraphQlClient.KnownRepo("N1", null)), 10, 1)
+                .blockFirst();
+
+        assertThat(result.failed()).isFalse();
+        assertThat(result.repositories()).hasSize(1);
+        assertThat(requests).hasSize(3);
+    }
+
+    // ───── 스텁 서버 ─────
+
+    @SuppressWarnings("unchecked")
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+        requests.add(request);
+
+        Object[] forced = scripted.poll();
+        if (forced != null) {
+            respond(exchange, (int) forced[0], forced[1]);
+            return;
+        }
+
+        String query = (String) request.get("query");
+        boolean withText = query.contains("text isBinary");
+        List<String> ids = (List<String>) ((Map<String, Object>) request.get("variables")).get("ids");
+
+        List<Object> nodes = new ArrayList<>();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        for (String id : ids) {
+            Map<String, Object> node = repos.get(id);
+            if (node == null) {
+                nodes.add(null);
+                errors.add(Map.of("type", "NOT_FOUND", "path", List.of("nodes", ids.indexOf(id)),
+                        "message", "Could not resolve to a node with the global id of '" + id + "'"));
+            } else {
+                nodes.add(withText ? withReadmeText(node) : node);
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("data", Map.of("nodes", nodes));
+        if (!errors.isEmpty()) {
+            body.put("errors", errors);
+        }
+        respond(exchange, 200, body);
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        exchange.getResponseBody().write(json);
+        exchange.close();
+    }
+
+    private static Map<String, Object> repo(int n, String readmeOid) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("databaseId", n);
+        node.put("id", "N" + n);
+        node.put("name", "repo" + n);
+        node.put("nameWithOwner", "owner/repo" + n);
+        node.put("owner", Map.of("login", "owner"));
+        node.put("url", "https://github.com/owner/repo" + n);
+        node.put("description", "repo " + n);
+        node.put("primaryLanguage", Map.of("name", "Java"));
+        node.put("stargazerCount", 1000 + n);
+        node.put("createdAt", "2024-01-01T00:00:00Z");
+        node.put("pushedAt", "2025-01-01T00:00:00Z");
+        node.put("updatedAt", "2025-01-01T00:00:00Z");
+        if (readmeOid != null) {
+            // README.md 는 없고 readme.md 에 있는 경우 (두 번째 후보 경로)
+            node.put("readme0", null);
+            node.put("readme1", Map.of("oid", readmeOid, "byteSize", 42));
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> withReadmeText(Map<String, Object> node) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", node.get("id"));
+        Map<String, Object> blob = (Map<String, Object>) node.get("readme1");
+        if (blob != null) {
+            Map<String, Object> withText = new HashMap<>(blob);
+            withText.put("text", "readme of " + node.get("nameWithOwner"));
+            withText.put("isBinary", false);
+            result.put("readme1", withText);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> idsOf(boolean textQueries) {
+        List<List<String>> result = new ArrayList<>();
+        for (Map<String, Object> request : requests) {
+            if (((String) request.get("query")).contains("text isBinary") == textQueries) {
+                result.add((List<String>) ((Map<String, Object>) request.get("variables")).get("ids"));
+            }
+        }
+        result.sort(Comparator.comparing(List::toString));
+        return Collections.unmodifiableList(result);
+    }
+
+    private List<List<String>> metaRequests() {
+        return idsOf(false);
+    }
+
+    private List<List<String>> textRequests() {
+        return idsOf(true);
+    }
+}